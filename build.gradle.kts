@@ -1,6 +1,7 @@
 plugins {
     java
     id("com.gradleup.shadow") version "9.3.1"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.uberswe.hytale"
@@ -31,6 +32,18 @@ dependencies {
     // OTLP Exporters
     implementation("io.opentelemetry:opentelemetry-exporter-otlp:$otelVersion")
 
+    // OTLP protobuf marshalers, used to persist failed exports to the disk spool.
+    // The spool exporters use io.opentelemetry.exporter.internal.otlp.*, which has no
+    // compatibility guarantee between releases and no public replacement, so the version
+    // is pinned strictly. When bumping otelVersion, re-check SpoolingMetricExporter and
+    // SpoolingSpanExporter. The jar is relocated into the plugin, so the server cannot
+    // swap in another version at runtime.
+    implementation("io.opentelemetry:opentelemetry-exporter-otlp-common") {
+        version {
+            strictly(otelVersion)
+        }
+    }
+
     // HTTP sender for OTLP exporter (JDK built-in HTTP client)
     implementation("io.opentelemetry:opentelemetry-exporter-sender-jdk:$otelVersion")
 
@@ -45,6 +58,17 @@ dependencies {
 
     // Annotations
     compileOnly("com.google.code.findbugs:jsr305:3.0.2")
+    "jmhCompileOnly"("com.google.code.findbugs:jsr305:3.0.2")
+}
+
+// Benchmarks live in src/jmh/java. Run with: ./gradlew jmh
+// Results (ns/op plus the gc profiler's allocation rate) are written to build/reports/jmh/
+jmh {
+    jmhVersion.set("1.37")
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+    humanOutputFile.set(layout.buildDirectory.file("reports/jmh/human.txt"))
 }
 
 tasks.withType<JavaCompile> {
@@ -0,0 +1,87 @@
+package com.uberswe.hytale.otel.bench;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Prints the rows of the results table in benchmarks/README.md from a JMH JSON result
+ * file, so recorded numbers are copied rather than retyped.
+ *
+ * <pre>
+ * java -cp build/libs/*-jmh.jar com.uberswe.hytale.otel.bench.BaselineTable \
+ *     benchmarks/baseline-&lt;version&gt;.json &lt;version&gt; "&lt;cpu, os&gt;"
+ * </pre>
+ *
+ * Each cell holds the average time in ns/op with its error and the allocation per
+ * operation reported by the gc profiler.
+ */
+public final class BaselineTable {
+    private static final List<String> PROFILES = List.of("metrics", "tracing", "disabled");
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private BaselineTable() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: BaselineTable <result.json> <version> <machine>");
+            System.exit(2);
+        }
+        JsonArray results;
+        try (Reader reader = Files.newBufferedReader(Path.of(args[0]))) {
+            results = JsonParser.parseReader(reader).getAsJsonArray();
+        }
+
+        String jvm = "";
+        Map<String, Map<String, String>> rows = new TreeMap<>();
+        for (JsonElement element : results) {
+            JsonObject result = element.getAsJsonObject();
+            jvm = result.get("vmName").getAsString() + " " + result.get("vmVersion").getAsString();
+            String benchmark = result.get("benchmark").getAsString();
+            benchmark = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            JsonObject params = result.getAsJsonObject("params");
+            String profile = params != null && params.has("profile") ? params.get("profile").getAsString() : "";
+            rows.computeIfAbsent(benchmark, name -> new TreeMap<>()).put(profile, cell(result));
+        }
+
+        for (var row : rows.entrySet()) {
+            StringBuilder line = new StringBuilder()
+                    .append("| ").append(args[1])
+                    .append(" | ").append(args[2])
+                    .append(" | ").append(jvm)
+                    .append(" | ").append(row.getKey());
+            for (String profile : PROFILES) {
+                line.append(" | ").append(row.getValue().getOrDefault(profile, "-"));
+            }
+            System.out.println(line.append(" |"));
+        }
+    }
+
+    private static String cell(JsonObject result) {
+        JsonObject primary = result.getAsJsonObject("primaryMetric");
+        String cell = String.format(Locale.ROOT, "%.1f \u00b1 %.1f %s", primary.get("score").getAsDouble(),
+                primary.get("scoreError").getAsDouble(), primary.get("scoreUnit").getAsString());
+        JsonObject secondary = result.getAsJsonObject("secondaryMetrics");
+        if (secondary != null) {
+            for (var metric : secondary.entrySet()) {
+                // Older JMH versions prefix profiler metrics with a middle dot
+                if (metric.getKey().replace("\u00b7", "").equals(ALLOCATION)) {
+                    double bytes = metric.getValue().getAsJsonObject().get("score").getAsDouble();
+                    cell += String.format(Locale.ROOT, ", %.0f B/op", bytes);
+                }
+            }
+        }
+        return cell;
+    }
+}
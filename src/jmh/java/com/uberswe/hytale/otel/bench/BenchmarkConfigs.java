@@ -0,0 +1,38 @@
+package com.uberswe.hytale.otel.bench;
+
+import com.uberswe.hytale.otel.config.PluginConfig;
+
+/**
+ * Plugin configurations exercised by the benchmarks.
+ *
+ * Exports go over OTLP/HTTP to a local {@link NoopCollector} with a long interval,
+ * so that no export happens during a measurement iteration and the exports at the end
+ * of a trial succeed at once.
+ */
+final class BenchmarkConfigs {
+    static final String METRICS = "metrics";
+    static final String TRACING = "tracing";
+    static final String DISABLED = "disabled";
+    static final String PIPELINE = "pipeline";
+
+    private BenchmarkConfigs() {
+    }
+
+    static PluginConfig create(String profile) {
+        PluginConfig config = new PluginConfig();
+        config.getOtlp().setProtocol("http");
+        config.getOtlp().setEndpoint(NoopCollector.endpoint());
+        config.getMetrics().setExportIntervalMs(3_600_000L);
+        config.getTracing().setEnabled(false);
+
+        switch (profile) {
+            case METRICS -> {
+            }
+            case TRACING -> config.getTracing().setEnabled(true);
+            case DISABLED -> config.getMetrics().setEnabled(false);
+            case PIPELINE -> config.getMetrics().getPipeline().setEnabled(true);
+            default -> throw new IllegalArgumentException("Unknown benchmark profile: " + profile);
+        }
+        return config;
+    }
+}
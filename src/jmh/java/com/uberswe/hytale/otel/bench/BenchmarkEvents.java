@@ -0,0 +1,180 @@
+package com.uberswe.hytale.otel.bench;
+
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.protocol.InteractionType;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.event.events.ecs.BreakBlockEvent;
+import com.hypixel.hytale.server.core.event.events.ecs.PlaceBlockEvent;
+import com.hypixel.hytale.server.core.event.events.ecs.UseBlockEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerConnectEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.UUID;
+
+/**
+ * Concrete versions of the server API stubs that return fixed values, so the
+ * event systems and listeners can be driven without a running server.
+ */
+final class BenchmarkEvents {
+
+    private BenchmarkEvents() {
+    }
+
+    static Vector3i position(int x, int y, int z) {
+        Vector3i position = new Vector3i();
+        position.x = x;
+        position.y = y;
+        position.z = z;
+        return position;
+    }
+
+    /**
+     * Positions spread over a 256x256 area so bucketing sees a realistic mix of cells.
+     */
+    static Vector3i[] positions(int count) {
+        Vector3i[] positions = new Vector3i[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = position((i * 37) % 256, 64 + (i % 16), (i * 101) % 256);
+        }
+        return positions;
+    }
+
+    static Store<EntityStore> store(String worldName) {
+        World world = new World() {
+            @Override
+            public String getName() {
+                return worldName;
+            }
+        };
+        EntityStore entityStore = new EntityStore() {
+            @Override
+            public World getWorld() {
+                return world;
+            }
+        };
+        return new Store<>() {
+            @Override
+            public EntityStore getExternalData() {
+                return entityStore;
+            }
+        };
+    }
+
+    static BlockType blockType(String id) {
+        return new BlockType() {
+            @Override
+            public String getId() {
+                return id;
+            }
+        };
+    }
+
+    static final class Break extends BreakBlockEvent {
+        Vector3i target;
+        BlockType blockType;
+
+        @Override
+        public Vector3i getTargetBlock() {
+            return target;
+        }
+
+        @Override
+        public BlockType getBlockType() {
+            return blockType;
+        }
+    }
+
+    static final class Place extends PlaceBlockEvent {
+        Vector3i target;
+        ItemStack item;
+
+        @Override
+        public Vector3i getTargetBlock() {
+            return target;
+        }
+
+        @Override
+        public ItemStack getItemInHand() {
+            return item;
+        }
+    }
+
+    static final class Use extends UseBlockEvent.Post {
+        Vector3i target;
+        BlockType blockType;
+        InteractionType interactionType = InteractionType.Primary;
+
+        @Override
+        public Vector3i getTargetBlock() {
+            return target;
+        }
+
+        @Override
+        public BlockType getBlockType() {
+            return blockType;
+        }
+
+        @Override
+        public InteractionType getInteractionType() {
+            return interactionType;
+        }
+    }
+
+    static ItemStack item(String id) {
+        return new ItemStack() {
+            @Override
+            public String getItemId() {
+                return id;
+            }
+        };
+    }
+
+    static PlayerRef playerRef(UUID uuid, String username) {
+        return new PlayerRef() {
+            @Override
+            public UUID getUuid() {
+                return uuid;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+        };
+    }
+
+    static PlayerConnectEvent connect(PlayerRef playerRef) {
+        Player player = new Player() {
+            @Override
+            public PlayerRef getPlayerRef() {
+                return playerRef;
+            }
+        };
+        return new PlayerConnectEvent() {
+            @Override
+            public Player getPlayer() {
+                return player;
+            }
+
+            @Override
+            public PlayerRef getPlayerRef() {
+                return playerRef;
+            }
+        };
+    }
+
+    static PlayerDisconnectEvent disconnect(PlayerRef playerRef) {
+        return new PlayerDisconnectEvent() {
+            @Override
+            public PlayerRef getPlayerRef() {
+                return playerRef;
+            }
+        };
+    }
+}
@@ -0,0 +1,116 @@
+package com.uberswe.hytale.otel.bench;
+
+import com.google.gson.Gson;
+import com.hypixel.hytale.component.ComponentRegistryProxy;
+import com.hypixel.hytale.component.system.ISystem;
+import com.hypixel.hytale.event.EventPriority;
+import com.hypixel.hytale.event.EventRegistration;
+import com.hypixel.hytale.event.EventRegistry;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
+import com.uberswe.hytale.otel.OpenTelemetryPlugin;
+import com.uberswe.hytale.otel.config.PluginConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * OpenTelemetryPlugin wired to in-memory registries so its event listeners can be
+ * invoked directly from a benchmark.
+ */
+final class BenchmarkPlugin extends OpenTelemetryPlugin {
+    private final Path dataDirectory;
+    private final HytaleLogger logger = new NoopLogger();
+    private final Map<Class<?>, Consumer<?>> handlers = new HashMap<>();
+
+    private final EventRegistry eventRegistry = new EventRegistry() {
+        @Override
+        public <E> EventRegistration register(Class<E> eventClass, Consumer<E> handler) {
+            handlers.put(eventClass, handler);
+            return () -> handlers.remove(eventClass);
+        }
+
+        @Override
+        public <E> EventRegistration registerGlobal(Class<E> eventClass, Consumer<E> handler) {
+            return register(eventClass, handler);
+        }
+
+        @Override
+        public <E> EventRegistration registerGlobal(EventPriority priority, Class<E> eventClass,
+                                                    Consumer<E> handler) {
+            return register(eventClass, handler);
+        }
+
+        @Override
+        public <E> EventRegistration registerAsyncGlobal(Class<E> eventClass,
+                                                         Function<E, CompletableFuture<Void>> handler) {
+            return () -> {
+            };
+        }
+    };
+
+    private final ComponentRegistryProxy entityStoreRegistry = new ComponentRegistryProxy() {
+        @Override
+        public void registerSystem(ISystem<?> system) {
+        }
+    };
+
+    private BenchmarkPlugin(Path dataDirectory) {
+        super(new JavaPluginInit());
+        this.dataDirectory = dataDirectory;
+    }
+
+    /**
+     * Create a plugin whose data directory holds the given configuration, then run
+     * the same preLoad and setup sequence the server does.
+     */
+    static BenchmarkPlugin start(PluginConfig config) throws IOException {
+        Path dataDirectory = Files.createTempDirectory("hotel-c-bench");
+        Files.writeString(dataDirectory.resolve("config.json"), new Gson().toJson(config), StandardCharsets.UTF_8);
+
+        BenchmarkPlugin plugin = new BenchmarkPlugin(dataDirectory);
+        plugin.preLoad().join();
+        plugin.setup();
+        plugin.start();
+        return plugin;
+    }
+
+    void stop() {
+        shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    <E> void fire(Class<E> eventClass, E event) {
+        Consumer<E> handler = (Consumer<E>) handlers.get(eventClass);
+        if (handler != null) {
+            handler.accept(event);
+        }
+    }
+
+    @Override
+    public HytaleLogger getLogger() {
+        return logger;
+    }
+
+    @Override
+    public Path getDataDirectory() {
+        return dataDirectory;
+    }
+
+    @Override
+    public EventRegistry getEventRegistry() {
+        return eventRegistry;
+    }
+
+    @Override
+    public ComponentRegistryProxy getEntityStoreRegistry() {
+        return entityStoreRegistry;
+    }
+}
@@ -0,0 +1,112 @@
+package com.uberswe.hytale.otel.bench;
+
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.uberswe.hytale.otel.ecs.BlockBreakEventSystem;
+import com.uberswe.hytale.otel.ecs.BlockPlaceEventSystem;
+import com.uberswe.hytale.otel.ecs.BlockUseEventSystem;
+import com.uberswe.hytale.otel.telemetry.TelemetryManager;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the block ECS systems' handle() path, driven through concrete stub events.
+ * Each invocation moves to the next of a fixed set of positions so location
+ * attributes are not constant.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BlockEventSystemBenchmark {
+    private static final int POSITIONS = 1024;
+
+    @Param({BenchmarkConfigs.METRICS, BenchmarkConfigs.TRACING, BenchmarkConfigs.DISABLED, BenchmarkConfigs.PIPELINE})
+    public String profile;
+
+    @Param({"exact", "chunk"})
+    public String spatialMode;
+
+    private TelemetryManager telemetryManager;
+    private BlockPlaceEventSystem placeSystem;
+    private BlockBreakEventSystem breakSystem;
+    private BlockUseEventSystem useSystem;
+
+    private Store<EntityStore> store;
+    private Vector3i[] positions;
+    private int next;
+
+    private final BenchmarkEvents.Place placeEvent = new BenchmarkEvents.Place();
+    private final BenchmarkEvents.Break breakEvent = new BenchmarkEvents.Break();
+    private final BenchmarkEvents.Use useEvent = new BenchmarkEvents.Use();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        GlobalOpenTelemetry.resetForTest();
+        var config = BenchmarkConfigs.create(profile);
+        config.getMetrics().getBlockMetrics().getSpatialAggregation().setMode(spatialMode);
+
+        telemetryManager = new TelemetryManager(new NoopLogger(), config, Files.createTempDirectory("hotel-c-bench"));
+        telemetryManager.initialize();
+
+        placeSystem = new BlockPlaceEventSystem(telemetryManager);
+        breakSystem = new BlockBreakEventSystem(telemetryManager);
+        useSystem = new BlockUseEventSystem(telemetryManager);
+
+        store = BenchmarkEvents.store("default");
+        positions = BenchmarkEvents.positions(POSITIONS);
+        placeEvent.item = BenchmarkEvents.item("Rock_Stone");
+        breakEvent.blockType = BenchmarkEvents.blockType("Rock_Stone");
+        useEvent.blockType = BenchmarkEvents.blockType("Furniture_Chest");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        telemetryManager.shutdown();
+        NoopCollector.stop();
+        GlobalOpenTelemetry.resetForTest();
+    }
+
+    private Vector3i nextPosition() {
+        Vector3i position = positions[next];
+        next = (next + 1) & (POSITIONS - 1);
+        return position;
+    }
+
+    @Benchmark
+    public void placeBlock() {
+        placeEvent.target = nextPosition();
+        placeSystem.handle(0, null, store, null, placeEvent);
+    }
+
+    @Benchmark
+    public void breakBlock() {
+        breakEvent.target = nextPosition();
+        breakSystem.handle(0, null, store, null, breakEvent);
+    }
+
+    @Benchmark
+    public void useBlock() {
+        useEvent.target = nextPosition();
+        useSystem.handle(0, null, store, null, useEvent);
+    }
+}
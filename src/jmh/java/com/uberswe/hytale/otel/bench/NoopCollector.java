@@ -0,0 +1,69 @@
+package com.uberswe.hytale.otel.bench;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+
+/**
+ * OTLP/HTTP endpoint that accepts every export and discards it.
+ *
+ * Benchmarks export to it instead of an unreachable port, so a flush or shutdown at the
+ * end of a trial completes at once rather than waiting out connection timeouts and
+ * retries, and failed exports do not end up in the disk spool. It is started by the
+ * first configuration created in a trial and stopped in the trial's teardown.
+ */
+final class NoopCollector {
+    private static HttpServer server;
+
+    private NoopCollector() {
+    }
+
+    /**
+     * Base URL of the collector, starting it on first use.
+     */
+    static synchronized String endpoint() {
+        if (server == null) {
+            try {
+                server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            server.createContext("/", NoopCollector::accept);
+            server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "bench-noop-collector");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            server.start();
+        }
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Stop the collector after the plugin has shut down. Its dispatcher thread is not a
+     * daemon, so a fork would otherwise wait for JMH's shutdown timeout before exiting.
+     */
+    static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private static void accept(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+        // An empty protobuf message is a valid, fully successful export response
+        exchange.getResponseHeaders().set("Content-Type", "application/x-protobuf");
+        exchange.sendResponseHeaders(200, -1);
+        exchange.close();
+    }
+}
@@ -0,0 +1,26 @@
+package com.uberswe.hytale.otel.bench;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.util.logging.Level;
+
+/**
+ * Logger that discards everything, standing in for the server logger.
+ */
+final class NoopLogger extends HytaleLogger {
+    private static final Api API = new Api() {
+        @Override
+        public void log(String message) {
+        }
+
+        @Override
+        public Api withCause(Throwable cause) {
+            return this;
+        }
+    };
+
+    @Override
+    public Api at(Level level) {
+        return API;
+    }
+}
@@ -0,0 +1,73 @@
+package com.uberswe.hytale.otel.bench;
+
+import com.hypixel.hytale.server.core.event.events.player.PlayerConnectEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the plugin's player connect and disconnect listeners, including session
+ * span handling when tracing is on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayerSessionBenchmark {
+    private static final int PLAYERS = 256;
+
+    @Param({BenchmarkConfigs.METRICS, BenchmarkConfigs.TRACING, BenchmarkConfigs.DISABLED})
+    public String profile;
+
+    private BenchmarkPlugin plugin;
+    private PlayerConnectEvent[] connects;
+    private PlayerDisconnectEvent[] disconnects;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        GlobalOpenTelemetry.resetForTest();
+        plugin = BenchmarkPlugin.start(BenchmarkConfigs.create(profile));
+
+        connects = new PlayerConnectEvent[PLAYERS];
+        disconnects = new PlayerDisconnectEvent[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            var playerRef = BenchmarkEvents.playerRef(new UUID(0L, i), "player" + i);
+            connects[i] = BenchmarkEvents.connect(playerRef);
+            disconnects[i] = BenchmarkEvents.disconnect(playerRef);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        plugin.stop();
+        NoopCollector.stop();
+        GlobalOpenTelemetry.resetForTest();
+    }
+
+    @Benchmark
+    public void connectDisconnect() {
+        int player = next;
+        next = (next + 1) % PLAYERS;
+        plugin.fire(PlayerConnectEvent.class, connects[player]);
+        plugin.fire(PlayerDisconnectEvent.class, disconnects[player]);
+    }
+}
@@ -0,0 +1,96 @@
+package com.uberswe.hytale.otel.bench;
+
+import com.hypixel.hytale.protocol.InteractionType;
+import com.uberswe.hytale.otel.telemetry.TelemetryManager;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the TelemetryManager record methods with pre-built attributes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecordBenchmark {
+    @Param({BenchmarkConfigs.METRICS, BenchmarkConfigs.TRACING, BenchmarkConfigs.DISABLED, BenchmarkConfigs.PIPELINE})
+    public String profile;
+
+    private TelemetryManager telemetryManager;
+    private Attributes blockAttributes;
+    private Attributes useAttributes;
+    private UUID playerUuid;
+    private Attributes playerAttributes;
+    private Attributes worldAttributes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        GlobalOpenTelemetry.resetForTest();
+        telemetryManager = new TelemetryManager(new NoopLogger(), BenchmarkConfigs.create(profile),
+                Files.createTempDirectory("hotel-c-bench"));
+        telemetryManager.initialize();
+
+        blockAttributes = telemetryManager.getBlockAttributeCache().get("default", "Rock_Stone", 10, 64, 10);
+        useAttributes = telemetryManager.getBlockAttributeCache()
+                .get("default", "Furniture_Chest", InteractionType.Secondary, 10, 64, 10);
+        playerUuid = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        playerAttributes = Attributes.of(
+                AttributeKey.stringKey("player.uuid"), playerUuid.toString(),
+                AttributeKey.stringKey("player.name"), "bench");
+        worldAttributes = Attributes.of(AttributeKey.stringKey("world.name"), "default");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        telemetryManager.shutdown();
+        NoopCollector.stop();
+        GlobalOpenTelemetry.resetForTest();
+    }
+
+    @Benchmark
+    public void recordBlockPlaced() {
+        telemetryManager.recordBlockPlaced(blockAttributes);
+    }
+
+    @Benchmark
+    public void recordBlockBroken() {
+        telemetryManager.recordBlockBroken(blockAttributes);
+    }
+
+    @Benchmark
+    public void recordBlockInteraction() {
+        telemetryManager.recordBlockInteraction(useAttributes);
+    }
+
+    @Benchmark
+    public void recordPlayerConnectDisconnect() {
+        telemetryManager.recordPlayerConnect(playerUuid, "default", playerAttributes);
+        telemetryManager.recordPlayerDisconnect(playerUuid, playerAttributes);
+    }
+
+    @Benchmark
+    public void recordWorldLoaded() {
+        telemetryManager.recordWorldLoaded(worldAttributes);
+    }
+}
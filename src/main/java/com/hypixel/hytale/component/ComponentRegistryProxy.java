@@ -8,7 +8,7 @@ import com.hypixel.hytale.component.system.ISystem;
  */
 public class ComponentRegistryProxy {
 
-    public void registerSystem(ISystem system) {
+    public void registerSystem(ISystem<?> system) {
         throw new UnsupportedOperationException("Stub");
     }
 }
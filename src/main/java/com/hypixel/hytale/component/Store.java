@@ -4,4 +4,11 @@ package com.hypixel.hytale.component;
  * Stub class for Hytale Store.
  */
 public class Store<T> {
+
+    /**
+     * Returns the store's external data (e.g. the EntityStore owning a world's entities).
+     */
+    public T getExternalData() {
+        throw new UnsupportedOperationException("Stub");
+    }
 }
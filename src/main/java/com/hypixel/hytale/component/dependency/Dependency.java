@@ -0,0 +1,8 @@
+package com.hypixel.hytale.component.dependency;
+
+/**
+ * Stub class for Hytale Dependency.
+ * Constrains where a system runs in the tick order of its store.
+ */
+public abstract class Dependency<S> {
+}
@@ -0,0 +1,16 @@
+package com.hypixel.hytale.component.dependency;
+
+/**
+ * Stub class for Hytale RootDependency.
+ * Places a system before or after every other system of its store.
+ */
+public class RootDependency<S> extends Dependency<S> {
+
+    public static <S> RootDependency<S> first() {
+        throw new UnsupportedOperationException("Stub");
+    }
+
+    public static <S> RootDependency<S> last() {
+        throw new UnsupportedOperationException("Stub");
+    }
+}
@@ -9,7 +9,7 @@ import com.hypixel.hytale.component.query.Query;
  * Stub class for Hytale EntityEventSystem.
  * Based on actual Hytale server API from SimpleClaims analysis.
  */
-public abstract class EntityEventSystem<S, E> implements ISystem {
+public abstract class EntityEventSystem<S, E> implements ISystem<S> {
 
     protected EntityEventSystem(Class<E> eventClass) {
     }
@@ -1,8 +1,16 @@
 package com.hypixel.hytale.component.system;
 
+import com.hypixel.hytale.component.dependency.Dependency;
+
+import java.util.Set;
+
 /**
  * Stub interface for Hytale ISystem.
  * Base interface for all ECS systems.
  */
-public interface ISystem {
+public interface ISystem<S> {
+
+    default Set<Dependency<S>> getDependencies() {
+        return Set.of();
+    }
 }
@@ -0,0 +1,13 @@
+package com.hypixel.hytale.component.system.tick;
+
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.ISystem;
+
+/**
+ * Stub class for Hytale TickingSystem.
+ * Ticked once per world tick for each store the system is registered with.
+ */
+public abstract class TickingSystem<S> implements ISystem<S> {
+
+    public abstract void tick(float dt, int systemIndex, Store<S> store);
+}
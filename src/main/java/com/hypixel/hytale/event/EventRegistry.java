@@ -24,6 +24,14 @@ public class EventRegistry {
         throw new UnsupportedOperationException("Stub");
     }
 
+    /**
+     * Register a global handler for keyed events at the given priority.
+     * Handlers run from LOWEST to HIGHEST priority.
+     */
+    public <E> EventRegistration registerGlobal(EventPriority priority, Class<E> eventClass, Consumer<E> handler) {
+        throw new UnsupportedOperationException("Stub");
+    }
+
     /**
      * Register an async global handler for keyed events.
      */
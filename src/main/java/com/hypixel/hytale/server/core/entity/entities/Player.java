@@ -1,6 +1,7 @@
 package com.hypixel.hytale.server.core.entity.entities;
 
 import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
 
 /**
  * Stub class for Hytale Player.
@@ -10,4 +11,8 @@ public class Player {
     public PlayerRef getPlayerRef() {
         throw new UnsupportedOperationException("Stub");
     }
+
+    public World getWorld() {
+        throw new UnsupportedOperationException("Stub");
+    }
 }
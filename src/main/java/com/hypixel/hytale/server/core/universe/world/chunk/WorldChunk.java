@@ -0,0 +1,21 @@
+package com.hypixel.hytale.server.core.universe.world.chunk;
+
+import com.hypixel.hytale.server.core.universe.world.World;
+
+/**
+ * Stub class for Hytale WorldChunk.
+ */
+public class WorldChunk {
+
+    public World getWorld() {
+        throw new UnsupportedOperationException("Stub");
+    }
+
+    public int getX() {
+        throw new UnsupportedOperationException("Stub");
+    }
+
+    public int getZ() {
+        throw new UnsupportedOperationException("Stub");
+    }
+}
@@ -0,0 +1,18 @@
+package com.hypixel.hytale.server.core.universe.world.events;
+
+import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
+
+/**
+ * Stub class for Hytale ChunkPreLoadProcessEvent.
+ * Fired when a chunk has been read from storage or generated, before it is added to the world.
+ */
+public class ChunkPreLoadProcessEvent {
+
+    public WorldChunk getChunk() {
+        throw new UnsupportedOperationException("Stub");
+    }
+
+    public boolean isNewlyGenerated() {
+        throw new UnsupportedOperationException("Stub");
+    }
+}
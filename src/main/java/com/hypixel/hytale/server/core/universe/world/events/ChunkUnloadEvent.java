@@ -0,0 +1,13 @@
+package com.hypixel.hytale.server.core.universe.world.events;
+
+import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
+
+/**
+ * Stub class for Hytale ChunkUnloadEvent.
+ */
+public class ChunkUnloadEvent {
+
+    public WorldChunk getChunk() {
+        throw new UnsupportedOperationException("Stub");
+    }
+}
@@ -1,7 +1,13 @@
 package com.hypixel.hytale.server.core.universe.world.storage;
 
+import com.hypixel.hytale.server.core.universe.world.World;
+
 /**
  * Stub class for Hytale EntityStore.
  */
 public class EntityStore {
+
+    public World getWorld() {
+        throw new UnsupportedOperationException("Stub");
+    }
 }
@@ -1,12 +1,18 @@
 package com.uberswe.hytale.otel;
 
+import com.uberswe.hytale.otel.config.ConfigWatcher;
 import com.uberswe.hytale.otel.config.PluginConfig;
 import com.uberswe.hytale.otel.ecs.BlockBreakEventSystem;
 import com.uberswe.hytale.otel.ecs.BlockPlaceEventSystem;
 import com.uberswe.hytale.otel.ecs.BlockUseEventSystem;
+import com.uberswe.hytale.otel.ecs.WorldTickStartSystem;
+import com.uberswe.hytale.otel.ecs.WorldTickSystem;
+import com.uberswe.hytale.otel.telemetry.ChunkMetrics;
+import com.uberswe.hytale.otel.telemetry.HandlerTimings;
 import com.uberswe.hytale.otel.telemetry.TelemetryManager;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import com.hypixel.hytale.logger.HytaleLogger;
 import com.hypixel.hytale.server.core.event.events.BootEvent;
 import com.hypixel.hytale.server.core.event.events.ShutdownEvent;
@@ -17,6 +23,9 @@ import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.events.AddWorldEvent;
+import com.hypixel.hytale.server.core.universe.world.events.ChunkPreLoadProcessEvent;
+import com.hypixel.hytale.server.core.universe.world.events.ChunkSaveEvent;
+import com.hypixel.hytale.server.core.universe.world.events.ChunkUnloadEvent;
 import com.hypixel.hytale.server.core.universe.world.events.RemoveWorldEvent;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
@@ -33,10 +42,7 @@ import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Map;
-import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * HOTEL C - Hytale OpenTelemetry Collector Plugin.
@@ -54,11 +60,9 @@ public class OpenTelemetryPlugin extends JavaPlugin {
 
     private PluginConfig config;
     private TelemetryManager telemetryManager;
+    private ConfigWatcher configWatcher;
     private HytaleLogger logger;
 
-    // Track player sessions for tracing
-    private final Map<UUID, Span> playerSessionSpans = new ConcurrentHashMap<>();
-
     // Server lifecycle tracking
     private Span serverLifecycleSpan;
     private long bootTime;
@@ -91,12 +95,16 @@ public class OpenTelemetryPlugin extends JavaPlugin {
         logger.at(Level.INFO).log("Setting up HOTEL C plugin...");
 
         // Initialize telemetry manager
-        telemetryManager = new TelemetryManager(logger, config);
+        telemetryManager = new TelemetryManager(logger, config, getDataDirectory());
         telemetryManager.initialize();
 
         // Register event listeners
         registerEventListeners();
 
+        if (config.isHotReload()) {
+            startConfigWatcher();
+        }
+
         logger.at(Level.INFO).log("HOTEL C plugin setup complete");
         logger.at(Level.INFO).log(String.format("Exporting to: %s", config.getOtlp().getEndpoint()));
     }
@@ -119,19 +127,16 @@ public class OpenTelemetryPlugin extends JavaPlugin {
             logger.at(Level.INFO).log("Shutting down HOTEL C plugin...");
         }
 
-        // End any active player session spans
-        for (Span span : playerSessionSpans.values()) {
-            span.setStatus(StatusCode.OK, "Server shutdown");
-            span.end();
-        }
-        playerSessionSpans.clear();
-
         // End server lifecycle span
         if (serverLifecycleSpan != null) {
             serverLifecycleSpan.setStatus(StatusCode.OK);
             serverLifecycleSpan.end();
         }
 
+        if (configWatcher != null) {
+            configWatcher.close();
+        }
+
         // Shutdown telemetry manager (flushes pending data)
         if (telemetryManager != null) {
             telemetryManager.shutdown();
@@ -146,9 +151,7 @@ public class OpenTelemetryPlugin extends JavaPlugin {
         Path configPath = getDataDirectory().resolve(CONFIG_FILE);
 
         if (Files.exists(configPath)) {
-            try (Reader reader = Files.newBufferedReader(configPath, StandardCharsets.UTF_8)) {
-                config = GSON.fromJson(reader, PluginConfig.class);
-            }
+            config = readConfiguration(configPath);
         } else {
             try (InputStream is = getClass().getClassLoader().getResourceAsStream(CONFIG_FILE)) {
                 if (is != null) {
@@ -164,6 +167,16 @@ public class OpenTelemetryPlugin extends JavaPlugin {
             Files.writeString(configPath, GSON.toJson(config), StandardCharsets.UTF_8);
         }
 
+        applyEnvironmentOverrides(config);
+    }
+
+    private static PluginConfig readConfiguration(Path configPath) throws IOException {
+        try (Reader reader = Files.newBufferedReader(configPath, StandardCharsets.UTF_8)) {
+            return GSON.fromJson(reader, PluginConfig.class);
+        }
+    }
+
+    private static void applyEnvironmentOverrides(PluginConfig config) {
         // Override from environment variables
         String envEndpoint = System.getenv("OTEL_EXPORTER_OTLP_ENDPOINT");
         if (envEndpoint != null && !envEndpoint.isBlank()) {
@@ -176,6 +189,37 @@ public class OpenTelemetryPlugin extends JavaPlugin {
         }
     }
 
+    private void startConfigWatcher() {
+        Path configPath = getDataDirectory().resolve(CONFIG_FILE);
+        configWatcher = new ConfigWatcher(configPath, () -> reloadConfiguration(configPath), logger);
+        try {
+            configWatcher.start();
+            logger.at(Level.INFO).log(String.format("Watching %s for changes", configPath));
+        } catch (IOException e) {
+            logger.at(Level.WARNING).withCause(e).log("Failed to watch config.json; changes need a restart");
+        }
+    }
+
+    /**
+     * Re-read config.json and hand it to the telemetry manager, which applies or rejects it.
+     */
+    private void reloadConfiguration(Path configPath) {
+        PluginConfig updated;
+        try {
+            updated = readConfiguration(configPath);
+        } catch (IOException | JsonParseException e) {
+            logger.at(Level.WARNING).log(String.format("Ignoring config.json change, it could not be read: %s",
+                    e.getMessage()));
+            return;
+        }
+        if (updated == null) {
+            // Empty file, most likely caught halfway through a write
+            return;
+        }
+        applyEnvironmentOverrides(updated);
+        telemetryManager.reload(updated);
+    }
+
     private void registerEventListeners() {
         var eventRegistry = getEventRegistry();
 
@@ -200,6 +244,14 @@ public class OpenTelemetryPlugin extends JavaPlugin {
             logger.at(Level.INFO).log("Registered world event listeners");
         }
 
+        // Chunk events - counted only; the server fires no event before the chunk I/O to time it from
+        if (config.getMetrics().getWorldMetrics().isEnabled() && config.getMetrics().getWorldMetrics().isTrackChunkLoading()) {
+            eventRegistry.registerGlobal(ChunkPreLoadProcessEvent.class, this::onChunkLoad);
+            eventRegistry.registerGlobal(ChunkSaveEvent.class, this::onChunkSave);
+            eventRegistry.registerGlobal(ChunkUnloadEvent.class, this::onChunkUnload);
+            logger.at(Level.INFO).log("Registered chunk event listeners");
+        }
+
         // PlayerReadyEvent - fired when player is fully loaded and ready (keyed event)
         if (config.getMetrics().getPlayerMetrics().isEnabled()) {
             eventRegistry.registerGlobal(PlayerReadyEvent.class, this::onPlayerReady);
@@ -227,10 +279,23 @@ public class OpenTelemetryPlugin extends JavaPlugin {
 
             logger.at(Level.INFO).log("Registered block ECS event systems");
         }
+
+        // Tick timing - a pair of ticking systems ordered first and last in the entity store of every world.
+        // Also needed to close the per-tick block operation spans and to detect lag spikes.
+        boolean trackTps = config.getMetrics().getServerMetrics().isEnabled()
+                && config.getMetrics().getServerMetrics().isTrackTps();
+        boolean traceBlockOperations = config.getTracing().isEnabled()
+                && config.getTracing().isTraceBlockOperations();
+        if (trackTps || traceBlockOperations || config.getFlightRecorder().isEnabled()) {
+            getEntityStoreRegistry().registerSystem(new WorldTickStartSystem(telemetryManager));
+            getEntityStoreRegistry().registerSystem(new WorldTickSystem(telemetryManager));
+            logger.at(Level.INFO).log("Registered WorldTickStartSystem and WorldTickSystem");
+        }
     }
 
     // Server event handlers
     private void onServerBoot(BootEvent event) {
+        long start = System.nanoTime();
         bootTime = System.currentTimeMillis();
         try {
             if (config.getTracing().isEnabled()) {
@@ -243,10 +308,13 @@ public class OpenTelemetryPlugin extends JavaPlugin {
             logger.at(Level.INFO).log("HOTEL C: Server boot event recorded");
         } catch (Exception e) {
             logger.at(Level.WARNING).withCause(e).log("Failed to record server boot event");
+        } finally {
+            telemetryManager.recordHandlerTime(HandlerTimings.SERVER_BOOT, start);
         }
     }
 
     private void onServerShutdown(ShutdownEvent event) {
+        long start = System.nanoTime();
         try {
             long uptime = System.currentTimeMillis() - bootTime;
             if (serverLifecycleSpan != null) {
@@ -256,11 +324,14 @@ public class OpenTelemetryPlugin extends JavaPlugin {
             logger.at(Level.INFO).log(String.format("HOTEL C: Server shutdown event recorded. Uptime: %ds", uptime / 1000));
         } catch (Exception e) {
             logger.at(Level.WARNING).withCause(e).log("Failed to record server shutdown event");
+        } finally {
+            telemetryManager.recordHandlerTime(HandlerTimings.SERVER_SHUTDOWN, start);
         }
     }
 
     // Player event handlers
     private void onPlayerConnect(PlayerConnectEvent event) {
+        long start = System.nanoTime();
         try {
             var player = event.getPlayer();
             var playerRef = event.getPlayerRef();
@@ -269,26 +340,22 @@ public class OpenTelemetryPlugin extends JavaPlugin {
                     .put(PLAYER_NAME, playerRef.getUsername())
                     .build();
 
-            telemetryManager.recordPlayerConnect(attributes);
+            var world = player != null ? player.getWorld() : null;
+            telemetryManager.recordPlayerConnect(playerRef.getUuid(), world != null ? world.getName() : null, attributes);
 
-            // Start session span if tracing is enabled
-            if (config.getTracing().isEnabled() && config.getTracing().isTracePlayerSessions()) {
-                Span sessionSpan = telemetryManager.getTracer()
-                        .spanBuilder("player.session")
-                        .setSpanKind(SpanKind.SERVER)
-                        .setAttribute(PLAYER_UUID, playerRef.getUuid().toString())
-                        .setAttribute(PLAYER_NAME, playerRef.getUsername())
-                        .startSpan();
-                playerSessionSpans.put(playerRef.getUuid(), sessionSpan);
-            }
+            // Session duration and segmented session spans
+            telemetryManager.startPlayerSession(playerRef.getUuid(), playerRef.getUsername());
 
             logger.at(Level.FINE).log(String.format("Recorded player connect: %s", playerRef.getUsername()));
         } catch (Exception e) {
             logger.at(Level.WARNING).withCause(e).log("Failed to record player connect event");
+        } finally {
+            telemetryManager.recordHandlerTime(HandlerTimings.PLAYER_CONNECT, start);
         }
     }
 
     private void onPlayerDisconnect(PlayerDisconnectEvent event) {
+        long start = System.nanoTime();
         try {
             // PlayerDisconnectEvent uses PlayerRef, not Player
             PlayerRef playerRef = event.getPlayerRef();
@@ -297,38 +364,39 @@ public class OpenTelemetryPlugin extends JavaPlugin {
                     .put(PLAYER_NAME, playerRef.getUsername())
                     .build();
 
-            telemetryManager.recordPlayerDisconnect(attributes);
+            telemetryManager.recordPlayerDisconnect(playerRef.getUuid(), attributes);
 
-            // End session span
-            Span sessionSpan = playerSessionSpans.remove(playerRef.getUuid());
-            if (sessionSpan != null) {
-                sessionSpan.setStatus(StatusCode.OK);
-                sessionSpan.end();
-            }
+            // End session
+            telemetryManager.endPlayerSession(playerRef.getUuid());
 
             logger.at(Level.FINE).log(String.format("Recorded player disconnect: %s", playerRef.getUsername()));
         } catch (Exception e) {
             logger.at(Level.WARNING).withCause(e).log("Failed to record player disconnect event");
+        } finally {
+            telemetryManager.recordHandlerTime(HandlerTimings.PLAYER_DISCONNECT, start);
         }
     }
 
     private void onPlayerReady(PlayerReadyEvent event) {
+        long start = System.nanoTime();
         try {
             var player = event.getPlayer();
             PlayerRef playerRef = player.getPlayerRef();
+            var world = player.getWorld();
+            telemetryManager.recordPlayerReady(playerRef.getUuid(), world != null ? world.getName() : null);
             // Add event to the player's session span if tracing
-            Span sessionSpan = playerSessionSpans.get(playerRef.getUuid());
-            if (sessionSpan != null) {
-                sessionSpan.addEvent("player.ready");
-            }
+            telemetryManager.addPlayerSessionEvent(playerRef.getUuid(), "player.ready");
             logger.at(Level.FINE).log(String.format("Recorded player ready: %s", playerRef.getUsername()));
         } catch (Exception e) {
             logger.at(Level.WARNING).withCause(e).log("Failed to record player ready event");
+        } finally {
+            telemetryManager.recordHandlerTime(HandlerTimings.PLAYER_READY, start);
         }
     }
 
     // World event handlers
     private void onWorldAdd(AddWorldEvent event) {
+        long start = System.nanoTime();
         try {
             var world = event.getWorld();
             var attributes = Attributes.builder()
@@ -346,10 +414,13 @@ public class OpenTelemetryPlugin extends JavaPlugin {
             logger.at(Level.FINE).log(String.format("Recorded world loaded: %s", world.getName()));
         } catch (Exception e) {
             logger.at(Level.WARNING).withCause(e).log("Failed to record world add event");
+        } finally {
+            telemetryManager.recordHandlerTime(HandlerTimings.WORLD_ADD, start);
         }
     }
 
     private void onWorldRemove(RemoveWorldEvent event) {
+        long start = System.nanoTime();
         try {
             var world = event.getWorld();
             var attributes = Attributes.builder()
@@ -367,6 +438,44 @@ public class OpenTelemetryPlugin extends JavaPlugin {
             logger.at(Level.FINE).log(String.format("Recorded world unloaded: %s", world.getName()));
         } catch (Exception e) {
             logger.at(Level.WARNING).withCause(e).log("Failed to record world remove event");
+        } finally {
+            telemetryManager.recordHandlerTime(HandlerTimings.WORLD_REMOVE, start);
+        }
+    }
+
+    // Chunk event handlers
+    private void onChunkLoad(ChunkPreLoadProcessEvent event) {
+        long start = System.nanoTime();
+        try {
+            var chunk = event.getChunk();
+            telemetryManager.recordChunkEvent(ChunkMetrics.OP_LOAD, chunk.getWorld().getName(),
+                    event.isNewlyGenerated());
+        } catch (Exception e) {
+            logger.at(Level.WARNING).withCause(e).log("Failed to record chunk load event");
+        } finally {
+            telemetryManager.recordHandlerTime(HandlerTimings.CHUNK_LOAD, start);
+        }
+    }
+
+    private void onChunkSave(ChunkSaveEvent event) {
+        long start = System.nanoTime();
+        try {
+            telemetryManager.recordChunkEvent(ChunkMetrics.OP_SAVE, event.getChunk().getWorld().getName(), false);
+        } catch (Exception e) {
+            logger.at(Level.WARNING).withCause(e).log("Failed to record chunk save event");
+        } finally {
+            telemetryManager.recordHandlerTime(HandlerTimings.CHUNK_SAVE, start);
+        }
+    }
+
+    private void onChunkUnload(ChunkUnloadEvent event) {
+        long start = System.nanoTime();
+        try {
+            telemetryManager.recordChunkEvent(ChunkMetrics.OP_UNLOAD, event.getChunk().getWorld().getName(), false);
+        } catch (Exception e) {
+            logger.at(Level.WARNING).withCause(e).log("Failed to record chunk unload event");
+        } finally {
+            telemetryManager.recordHandlerTime(HandlerTimings.CHUNK_UNLOAD, start);
         }
     }
 
@@ -0,0 +1,56 @@
+package com.uberswe.hytale.otel.config;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Lists the settings that differ between two configurations.
+ *
+ * Both configurations are serialized to JSON trees and compared leaf by leaf. Paths
+ * use dots for nested objects and brackets for list positions, e.g.
+ * {@code metrics.readers[0].exportIntervalMs}. A list that changed length is reported
+ * as the list itself.
+ */
+public final class ConfigDiff {
+    private static final Gson GSON = new Gson();
+
+    private ConfigDiff() {
+    }
+
+    public static List<String> changedPaths(PluginConfig before, PluginConfig after) {
+        List<String> changed = new ArrayList<>();
+        compare("", GSON.toJsonTree(before), GSON.toJsonTree(after), changed);
+        return changed;
+    }
+
+    private static void compare(String path, JsonElement before, JsonElement after, List<String> changed) {
+        before = before != null ? before : JsonNull.INSTANCE;
+        after = after != null ? after : JsonNull.INSTANCE;
+        if (before.isJsonObject() && after.isJsonObject()) {
+            JsonObject beforeObject = before.getAsJsonObject();
+            JsonObject afterObject = after.getAsJsonObject();
+            Set<String> keys = new TreeSet<>(beforeObject.keySet());
+            keys.addAll(afterObject.keySet());
+            for (String key : keys) {
+                compare(path.isEmpty() ? key : path + "." + key, beforeObject.get(key), afterObject.get(key), changed);
+            }
+        } else if (before.isJsonArray() && after.isJsonArray()
+                && before.getAsJsonArray().size() == after.getAsJsonArray().size()) {
+            JsonArray beforeArray = before.getAsJsonArray();
+            JsonArray afterArray = after.getAsJsonArray();
+            for (int i = 0; i < beforeArray.size(); i++) {
+                compare(path + "[" + i + "]", beforeArray.get(i), afterArray.get(i), changed);
+            }
+        } else if (!before.equals(after)) {
+            changed.add(path);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.uberswe.hytale.otel.config;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Watches the plugin's config file and calls back when it changes.
+ *
+ * Editors often write a file in several steps (truncate, write, rename), so after the
+ * first event the watcher waits for the file to settle and collapses everything that
+ * arrived meanwhile into one callback. The callback runs on the watcher's own daemon
+ * thread.
+ */
+public class ConfigWatcher {
+    private static final long SETTLE_MS = 500;
+
+    private final Path file;
+    private final Runnable onChange;
+    private final HytaleLogger logger;
+
+    private WatchService watchService;
+    private Thread thread;
+
+    public ConfigWatcher(Path file, Runnable onChange, HytaleLogger logger) {
+        this.file = file;
+        this.onChange = onChange;
+        this.logger = logger;
+    }
+
+    public void start() throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::run, "hotel-c-config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                if (!isRelevant(watchService.take())) {
+                    continue;
+                }
+                // Let the writer finish, then drop the events it caused in the meantime
+                Thread.sleep(SETTLE_MS);
+                WatchKey pending;
+                while ((pending = watchService.poll(0, TimeUnit.MILLISECONDS)) != null) {
+                    pending.pollEvents();
+                    pending.reset();
+                }
+                try {
+                    onChange.run();
+                } catch (RuntimeException e) {
+                    logger.at(Level.WARNING).withCause(e).log("Failed to reload configuration");
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Closed on shutdown
+        }
+    }
+
+    private boolean isRelevant(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    public void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.uberswe.hytale.otel.config;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -15,6 +17,10 @@ public class PluginConfig {
     private OtlpConfig otlp = new OtlpConfig();
     private MetricsConfig metrics = new MetricsConfig();
     private TracingConfig tracing = new TracingConfig();
+    private ProfilerConfig profiler = new ProfilerConfig();
+    private FlightRecorderConfig flightRecorder = new FlightRecorderConfig();
+    private GovernorConfig governor = new GovernorConfig();
+    private boolean hotReload = true;
     private Map<String, String> attributes = new HashMap<>();
 
     public boolean isEnabled() {
@@ -73,6 +79,38 @@ public class PluginConfig {
         this.tracing = tracing;
     }
 
+    public ProfilerConfig getProfiler() {
+        return profiler;
+    }
+
+    public void setProfiler(ProfilerConfig profiler) {
+        this.profiler = profiler;
+    }
+
+    public FlightRecorderConfig getFlightRecorder() {
+        return flightRecorder;
+    }
+
+    public void setFlightRecorder(FlightRecorderConfig flightRecorder) {
+        this.flightRecorder = flightRecorder;
+    }
+
+    public GovernorConfig getGovernor() {
+        return governor;
+    }
+
+    public void setGovernor(GovernorConfig governor) {
+        this.governor = governor;
+    }
+
+    public boolean isHotReload() {
+        return hotReload;
+    }
+
+    public void setHotReload(boolean hotReload) {
+        this.hotReload = hotReload;
+    }
+
     public Map<String, String> getAttributes() {
         return attributes;
     }
@@ -90,6 +128,7 @@ public class PluginConfig {
         private Map<String, String> headers = new HashMap<>();
         private int timeout = 10000;
         private String compression = "gzip";
+        private SpoolConfig spool = new SpoolConfig();
 
         public String getEndpoint() {
             return endpoint;
@@ -130,6 +169,65 @@ public class PluginConfig {
         public void setCompression(String compression) {
             this.compression = compression;
         }
+
+        public SpoolConfig getSpool() {
+            return spool;
+        }
+
+        public void setSpool(SpoolConfig spool) {
+            this.spool = spool;
+        }
+    }
+
+    /**
+     * Disk spool for export requests that fail while the OTLP endpoint is unreachable
+     */
+    public static class SpoolConfig {
+        private boolean enabled = false;
+        private long maxSizeMb = 256;
+        private int segmentSizeMb = 8;
+        private long replayIntervalMs = 5000;
+        private String replayEndpoint = ""; // OTLP/HTTP endpoint; derived from the OTLP endpoint if empty
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxSizeMb() {
+            return maxSizeMb;
+        }
+
+        public void setMaxSizeMb(long maxSizeMb) {
+            this.maxSizeMb = maxSizeMb;
+        }
+
+        public int getSegmentSizeMb() {
+            return segmentSizeMb;
+        }
+
+        public void setSegmentSizeMb(int segmentSizeMb) {
+            this.segmentSizeMb = segmentSizeMb;
+        }
+
+        public long getReplayIntervalMs() {
+            return replayIntervalMs;
+        }
+
+        public void setReplayIntervalMs(long replayIntervalMs) {
+            this.replayIntervalMs = replayIntervalMs;
+        }
+
+        public String getReplayEndpoint() {
+            return replayEndpoint;
+        }
+
+        public void setReplayEndpoint(String replayEndpoint) {
+            this.replayEndpoint = replayEndpoint;
+        }
     }
 
     /**
@@ -142,6 +240,13 @@ public class PluginConfig {
         private BlockMetricsConfig blockMetrics = new BlockMetricsConfig();
         private WorldMetricsConfig worldMetrics = new WorldMetricsConfig();
         private ServerMetricsConfig serverMetrics = new ServerMetricsConfig();
+        private PipelineConfig pipeline = new PipelineConfig();
+        private PrometheusConfig prometheus = new PrometheusConfig();
+        private Map<String, String> temporality = new HashMap<>(Map.of("default", "cumulative"));
+        private int cardinalityLimit = 2000;
+        private List<ViewConfig> views = new ArrayList<>();
+        private List<ReaderGroupConfig> readers = new ArrayList<>();
+        private boolean selfMetrics = true;
 
         public boolean isEnabled() {
             return enabled;
@@ -190,12 +295,295 @@ public class PluginConfig {
         public void setServerMetrics(ServerMetricsConfig serverMetrics) {
             this.serverMetrics = serverMetrics;
         }
+
+        public PipelineConfig getPipeline() {
+            return pipeline;
+        }
+
+        public void setPipeline(PipelineConfig pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        public PrometheusConfig getPrometheus() {
+            return prometheus;
+        }
+
+        public void setPrometheus(PrometheusConfig prometheus) {
+            this.prometheus = prometheus;
+        }
+
+        public Map<String, String> getTemporality() {
+            return temporality;
+        }
+
+        public void setTemporality(Map<String, String> temporality) {
+            this.temporality = temporality;
+        }
+
+        public int getCardinalityLimit() {
+            return cardinalityLimit;
+        }
+
+        public void setCardinalityLimit(int cardinalityLimit) {
+            this.cardinalityLimit = cardinalityLimit;
+        }
+
+        public List<ViewConfig> getViews() {
+            return views;
+        }
+
+        public void setViews(List<ViewConfig> views) {
+            this.views = views;
+        }
+
+        public List<ReaderGroupConfig> getReaders() {
+            return readers;
+        }
+
+        public void setReaders(List<ReaderGroupConfig> readers) {
+            this.readers = readers;
+        }
+
+        public boolean isSelfMetrics() {
+            return selfMetrics;
+        }
+
+        public void setSelfMetrics(boolean selfMetrics) {
+            this.selfMetrics = selfMetrics;
+        }
+    }
+
+    /**
+     * Named group of instruments exported by its own OTLP reader at its own interval.
+     * Instruments not matched by any group are exported at metrics.exportIntervalMs.
+     * The reader aggregates and collects every instrument, not just the group's.
+     */
+    public static class ReaderGroupConfig {
+        private String name = "";
+        private long exportIntervalMs = 5000;
+        private List<String> instruments = new ArrayList<>(); // names, wildcards * and ? allowed
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public long getExportIntervalMs() {
+            return exportIntervalMs;
+        }
+
+        public void setExportIntervalMs(long exportIntervalMs) {
+            this.exportIntervalMs = exportIntervalMs;
+        }
+
+        public List<String> getInstruments() {
+            return instruments;
+        }
+
+        public void setInstruments(List<String> instruments) {
+            this.instruments = instruments;
+        }
+    }
+
+    /**
+     * Metric view: changes how the instruments matching a name (wildcards * and ? allowed) are exported
+     */
+    public static class ViewConfig {
+        private String instrument = "";
+        private String name; // rename, exact instrument names only
+        private String description;
+        private List<String> keepAttributes; // allowlist; takes precedence over dropAttributes
+        private List<String> dropAttributes = new ArrayList<>();
+        private String aggregation = "default"; // default, drop, sum, last_value, explicit, exponential
+        private List<Double> buckets; // explicit bucket boundaries
+        private int maxBuckets = 160; // exponential
+        private int maxScale = 20; // exponential
+
+        public String getInstrument() {
+            return instrument;
+        }
+
+        public void setInstrument(String instrument) {
+            this.instrument = instrument;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public List<String> getKeepAttributes() {
+            return keepAttributes;
+        }
+
+        public void setKeepAttributes(List<String> keepAttributes) {
+            this.keepAttributes = keepAttributes;
+        }
+
+        public List<String> getDropAttributes() {
+            return dropAttributes;
+        }
+
+        public void setDropAttributes(List<String> dropAttributes) {
+            this.dropAttributes = dropAttributes;
+        }
+
+        public String getAggregation() {
+            return aggregation;
+        }
+
+        public void setAggregation(String aggregation) {
+            this.aggregation = aggregation;
+        }
+
+        public List<Double> getBuckets() {
+            return buckets;
+        }
+
+        public void setBuckets(List<Double> buckets) {
+            this.buckets = buckets;
+        }
+
+        public int getMaxBuckets() {
+            return maxBuckets;
+        }
+
+        public void setMaxBuckets(int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+        }
+
+        public int getMaxScale() {
+            return maxScale;
+        }
+
+        public void setMaxScale(int maxScale) {
+            this.maxScale = maxScale;
+        }
+    }
+
+    /**
+     * Embedded Prometheus scrape endpoint. Runs alongside the OTLP metric exporter or replaces it.
+     */
+    public static class PrometheusConfig {
+        private boolean enabled = false;
+        private String host = "0.0.0.0";
+        private int port = 9464;
+        private int threads = 2;
+        private String mode = "alongside"; // alongside or replace
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public void setHost(String host) {
+            this.host = host;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+    }
+
+    /**
+     * Asynchronous event pipeline. When enabled, block events are published into a
+     * preallocated ring buffer and recorded into the meters by a dedicated thread.
+     */
+    public static class PipelineConfig {
+        private boolean enabled = false;
+        private int bufferSize = 8192;
+        private String fullBufferPolicy = "drop"; // drop or overwrite
+        private int batchSize = 512;
+        private long drainIntervalMs = 5;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public String getFullBufferPolicy() {
+            return fullBufferPolicy;
+        }
+
+        public void setFullBufferPolicy(String fullBufferPolicy) {
+            this.fullBufferPolicy = fullBufferPolicy;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getDrainIntervalMs() {
+            return drainIntervalMs;
+        }
+
+        public void setDrainIntervalMs(long drainIntervalMs) {
+            this.drainIntervalMs = drainIntervalMs;
+        }
     }
 
     public static class PlayerMetricsConfig {
         private boolean enabled = true;
         private boolean trackConnections = true;
         private boolean trackSessions = true;
+        private boolean trackJoinLatency = true;
+        private UniquePlayersConfig uniquePlayers = new UniquePlayersConfig();
 
         public boolean isEnabled() {
             return enabled;
@@ -220,6 +608,58 @@ public class PluginConfig {
         public void setTrackSessions(boolean trackSessions) {
             this.trackSessions = trackSessions;
         }
+
+        public boolean isTrackJoinLatency() {
+            return trackJoinLatency;
+        }
+
+        public void setTrackJoinLatency(boolean trackJoinLatency) {
+            this.trackJoinLatency = trackJoinLatency;
+        }
+
+        public UniquePlayersConfig getUniquePlayers() {
+            return uniquePlayers;
+        }
+
+        public void setUniquePlayers(UniquePlayersConfig uniquePlayers) {
+            this.uniquePlayers = uniquePlayers;
+        }
+    }
+
+    /**
+     * Distinct player estimates over the last hour, day and 7 days, kept in HyperLogLog
+     * sketches. precision sets the sketch size (2^precision bytes per bucket, 180 buckets)
+     * and the error (about 1.04 / sqrt(2^precision)); persist saves the sketches to the
+     * data directory so restarts do not reset them.
+     */
+    public static class UniquePlayersConfig {
+        private boolean enabled = true;
+        private int precision = 11; // 7 to 16
+        private boolean persist = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getPrecision() {
+            return precision;
+        }
+
+        public void setPrecision(int precision) {
+            this.precision = precision;
+        }
+
+        public boolean isPersist() {
+            return persist;
+        }
+
+        public void setPersist(boolean persist) {
+            this.persist = persist;
+        }
     }
 
     public static class BlockMetricsConfig {
@@ -227,6 +667,9 @@ public class PluginConfig {
         private boolean trackPlacement = true;
         private boolean trackBreaking = true;
         private boolean trackInteractions = true;
+        private SpatialAggregationConfig spatialAggregation = new SpatialAggregationConfig();
+        private int attributeCacheSize = 16384;
+        private TopKConfig topK = new TopKConfig();
 
         public boolean isEnabled() {
             return enabled;
@@ -259,6 +702,127 @@ public class PluginConfig {
         public void setTrackInteractions(boolean trackInteractions) {
             this.trackInteractions = trackInteractions;
         }
+
+        public SpatialAggregationConfig getSpatialAggregation() {
+            return spatialAggregation;
+        }
+
+        public void setSpatialAggregation(SpatialAggregationConfig spatialAggregation) {
+            this.spatialAggregation = spatialAggregation;
+        }
+
+        public int getAttributeCacheSize() {
+            return attributeCacheSize;
+        }
+
+        public void setAttributeCacheSize(int attributeCacheSize) {
+            this.attributeCacheSize = attributeCacheSize;
+        }
+
+        public TopKConfig getTopK() {
+            return topK;
+        }
+
+        public void setTopK(TopKConfig topK) {
+            this.topK = topK;
+        }
+    }
+
+    /**
+     * Caps block.type to the most frequent values per window, folding the rest into
+     * "other". Broken and used blocks are counted by block type, placed blocks by the
+     * item in hand, each with its own limit.
+     */
+    public static class TopKConfig {
+        private boolean enabled = false;
+        private int blockTypes = 50;
+        private int heldItems = 50;
+        private long windowMs = 600000;
+        private int evictAfterWindows = 3;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBlockTypes() {
+            return blockTypes;
+        }
+
+        public void setBlockTypes(int blockTypes) {
+            this.blockTypes = blockTypes;
+        }
+
+        public int getHeldItems() {
+            return heldItems;
+        }
+
+        public void setHeldItems(int heldItems) {
+            this.heldItems = heldItems;
+        }
+
+        public long getWindowMs() {
+            return windowMs;
+        }
+
+        public void setWindowMs(long windowMs) {
+            this.windowMs = windowMs;
+        }
+
+        public int getEvictAfterWindows() {
+            return evictAfterWindows;
+        }
+
+        public void setEvictAfterWindows(int evictAfterWindows) {
+            this.evictAfterWindows = evictAfterWindows;
+        }
+    }
+
+    /**
+     * Controls how block coordinates are attached to block metrics.
+     * "exact" keeps raw block.x/y/z, "chunk" and "region" roll positions up into
+     * square cells of chunkSize/regionSize blocks, and "none" drops location entirely.
+     */
+    public static class SpatialAggregationConfig {
+        private String mode = "exact"; // exact, chunk, region or none
+        private int chunkSize = 32;
+        private int regionSize = 512;
+        private int maxCellsPerWorld = 0; // 0 = unlimited
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getRegionSize() {
+            return regionSize;
+        }
+
+        public void setRegionSize(int regionSize) {
+            this.regionSize = regionSize;
+        }
+
+        public int getMaxCellsPerWorld() {
+            return maxCellsPerWorld;
+        }
+
+        public void setMaxCellsPerWorld(int maxCellsPerWorld) {
+            this.maxCellsPerWorld = maxCellsPerWorld;
+        }
     }
 
     public static class WorldMetricsConfig {
@@ -296,6 +860,13 @@ public class PluginConfig {
         private boolean trackTps = true;
         private boolean trackMemory = true;
         private boolean trackUptime = true;
+        private boolean trackMemoryPools = true;
+        private boolean trackGc = true;
+        private boolean trackBufferPools = true;
+        private boolean trackThreads = true;
+        private boolean trackAllocation = true;
+        private GaugeSamplerConfig sampler = new GaugeSamplerConfig();
+        private JfrConfig jfr = new JfrConfig();
 
         public boolean isEnabled() {
             return enabled;
@@ -328,6 +899,182 @@ public class PluginConfig {
         public void setTrackUptime(boolean trackUptime) {
             this.trackUptime = trackUptime;
         }
+
+        public boolean isTrackMemoryPools() {
+            return trackMemoryPools;
+        }
+
+        public void setTrackMemoryPools(boolean trackMemoryPools) {
+            this.trackMemoryPools = trackMemoryPools;
+        }
+
+        public boolean isTrackGc() {
+            return trackGc;
+        }
+
+        public void setTrackGc(boolean trackGc) {
+            this.trackGc = trackGc;
+        }
+
+        public boolean isTrackBufferPools() {
+            return trackBufferPools;
+        }
+
+        public void setTrackBufferPools(boolean trackBufferPools) {
+            this.trackBufferPools = trackBufferPools;
+        }
+
+        public boolean isTrackThreads() {
+            return trackThreads;
+        }
+
+        public void setTrackThreads(boolean trackThreads) {
+            this.trackThreads = trackThreads;
+        }
+
+        public boolean isTrackAllocation() {
+            return trackAllocation;
+        }
+
+        public void setTrackAllocation(boolean trackAllocation) {
+            this.trackAllocation = trackAllocation;
+        }
+
+        public GaugeSamplerConfig getSampler() {
+            return sampler;
+        }
+
+        public void setSampler(GaugeSamplerConfig sampler) {
+            this.sampler = sampler;
+        }
+
+        public JfrConfig getJfr() {
+            return jfr;
+        }
+
+        public void setJfr(JfrConfig jfr) {
+            this.jfr = jfr;
+        }
+    }
+
+    /**
+     * In-process JDK Flight Recorder stream for contention, safepoint, GC pause and I/O stall metrics.
+     */
+    public static class JfrConfig {
+        private boolean enabled = false;
+        private long monitorThresholdMs = 10;
+        private long parkThresholdMs = 20;
+        private long safepointThresholdMs = 1;
+        private long ioThresholdMs = 20;
+        private int topContendedClasses = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMonitorThresholdMs() {
+            return monitorThresholdMs;
+        }
+
+        public void setMonitorThresholdMs(long monitorThresholdMs) {
+            this.monitorThresholdMs = monitorThresholdMs;
+        }
+
+        public long getParkThresholdMs() {
+            return parkThresholdMs;
+        }
+
+        public void setParkThresholdMs(long parkThresholdMs) {
+            this.parkThresholdMs = parkThresholdMs;
+        }
+
+        public long getSafepointThresholdMs() {
+            return safepointThresholdMs;
+        }
+
+        public void setSafepointThresholdMs(long safepointThresholdMs) {
+            this.safepointThresholdMs = safepointThresholdMs;
+        }
+
+        public long getIoThresholdMs() {
+            return ioThresholdMs;
+        }
+
+        public void setIoThresholdMs(long ioThresholdMs) {
+            this.ioThresholdMs = ioThresholdMs;
+        }
+
+        public int getTopContendedClasses() {
+            return topContendedClasses;
+        }
+
+        public void setTopContendedClasses(int topContendedClasses) {
+            this.topContendedClasses = topContendedClasses;
+        }
+    }
+
+    /**
+     * Fast local sampling of selected gauges, exported as min/max/avg/last over a trailing window.
+     */
+    public static class GaugeSamplerConfig {
+        private boolean enabled = false;
+        private long sampleIntervalMs = 250;
+        private long windowMs = 0; // 0 = shortest metric export interval
+        private boolean sampleHeapUsed = true;
+        private boolean sampleTickTime = true;
+        private boolean samplePlayerCount = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getSampleIntervalMs() {
+            return sampleIntervalMs;
+        }
+
+        public void setSampleIntervalMs(long sampleIntervalMs) {
+            this.sampleIntervalMs = sampleIntervalMs;
+        }
+
+        public long getWindowMs() {
+            return windowMs;
+        }
+
+        public void setWindowMs(long windowMs) {
+            this.windowMs = windowMs;
+        }
+
+        public boolean isSampleHeapUsed() {
+            return sampleHeapUsed;
+        }
+
+        public void setSampleHeapUsed(boolean sampleHeapUsed) {
+            this.sampleHeapUsed = sampleHeapUsed;
+        }
+
+        public boolean isSampleTickTime() {
+            return sampleTickTime;
+        }
+
+        public void setSampleTickTime(boolean sampleTickTime) {
+            this.sampleTickTime = sampleTickTime;
+        }
+
+        public boolean isSamplePlayerCount() {
+            return samplePlayerCount;
+        }
+
+        public void setSamplePlayerCount(boolean samplePlayerCount) {
+            this.samplePlayerCount = samplePlayerCount;
+        }
     }
 
     /**
@@ -337,7 +1084,9 @@ public class PluginConfig {
         private boolean enabled = true;
         private double sampleRate = 1.0;
         private boolean tracePlayerSessions = true;
+        private long sessionSegmentDurationMs = 300000;
         private boolean traceBlockOperations = false;
+        private int maxBlockEventsPerTick = 64;
 
         public boolean isEnabled() {
             return enabled;
@@ -363,6 +1112,14 @@ public class PluginConfig {
             this.tracePlayerSessions = tracePlayerSessions;
         }
 
+        public long getSessionSegmentDurationMs() {
+            return sessionSegmentDurationMs;
+        }
+
+        public void setSessionSegmentDurationMs(long sessionSegmentDurationMs) {
+            this.sessionSegmentDurationMs = sessionSegmentDurationMs;
+        }
+
         public boolean isTraceBlockOperations() {
             return traceBlockOperations;
         }
@@ -370,5 +1127,274 @@ public class PluginConfig {
         public void setTraceBlockOperations(boolean traceBlockOperations) {
             this.traceBlockOperations = traceBlockOperations;
         }
+
+        public int getMaxBlockEventsPerTick() {
+            return maxBlockEventsPerTick;
+        }
+
+        public void setMaxBlockEventsPerTick(int maxBlockEventsPerTick) {
+            this.maxBlockEventsPerTick = maxBlockEventsPerTick;
+        }
+    }
+
+    /**
+     * Sampling CPU and allocation profiler writing collapsed stacks to the data directory.
+     */
+    public static class ProfilerConfig {
+        private boolean enabled = false;
+        private boolean cpu = true;
+        private boolean allocation = true;
+        private long samplingIntervalMs = 20;
+        private int allocationSamplesPerSecond = 100;
+        private int maxStacks = 10000; // per profile type and interval
+        private long writeIntervalMs = 300000;
+        private int maxFiles = 24; // per profile type
+        private double overheadBudgetPercent = 1.0; // of one core, spent aggregating samples
+        private boolean emitSpans = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isCpu() {
+            return cpu;
+        }
+
+        public void setCpu(boolean cpu) {
+            this.cpu = cpu;
+        }
+
+        public boolean isAllocation() {
+            return allocation;
+        }
+
+        public void setAllocation(boolean allocation) {
+            this.allocation = allocation;
+        }
+
+        public long getSamplingIntervalMs() {
+            return samplingIntervalMs;
+        }
+
+        public void setSamplingIntervalMs(long samplingIntervalMs) {
+            this.samplingIntervalMs = samplingIntervalMs;
+        }
+
+        public int getAllocationSamplesPerSecond() {
+            return allocationSamplesPerSecond;
+        }
+
+        public void setAllocationSamplesPerSecond(int allocationSamplesPerSecond) {
+            this.allocationSamplesPerSecond = allocationSamplesPerSecond;
+        }
+
+        public int getMaxStacks() {
+            return maxStacks;
+        }
+
+        public void setMaxStacks(int maxStacks) {
+            this.maxStacks = maxStacks;
+        }
+
+        public long getWriteIntervalMs() {
+            return writeIntervalMs;
+        }
+
+        public void setWriteIntervalMs(long writeIntervalMs) {
+            this.writeIntervalMs = writeIntervalMs;
+        }
+
+        public int getMaxFiles() {
+            return maxFiles;
+        }
+
+        public void setMaxFiles(int maxFiles) {
+            this.maxFiles = maxFiles;
+        }
+
+        public double getOverheadBudgetPercent() {
+            return overheadBudgetPercent;
+        }
+
+        public void setOverheadBudgetPercent(double overheadBudgetPercent) {
+            this.overheadBudgetPercent = overheadBudgetPercent;
+        }
+
+        public boolean isEmitSpans() {
+            return emitSpans;
+        }
+
+        public void setEmitSpans(boolean emitSpans) {
+            this.emitSpans = emitSpans;
+        }
+    }
+
+    /**
+     * Lag spike flight recorder: recent gameplay events and tick timings, dumped when a tick runs long.
+     */
+    public static class FlightRecorderConfig {
+        private boolean enabled = false;
+        private long tickThresholdMs = 200;
+        private int bufferSize = 8192; // events, rounded up to a power of two
+        private long windowMs = 10000; // how far back a dump reaches
+        private long cooldownMs = 30000; // minimum time between dumps
+        private int maxFiles = 20;
+        private int threadDumpDepth = 32;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getTickThresholdMs() {
+            return tickThresholdMs;
+        }
+
+        public void setTickThresholdMs(long tickThresholdMs) {
+            this.tickThresholdMs = tickThresholdMs;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public long getWindowMs() {
+            return windowMs;
+        }
+
+        public void setWindowMs(long windowMs) {
+            this.windowMs = windowMs;
+        }
+
+        public long getCooldownMs() {
+            return cooldownMs;
+        }
+
+        public void setCooldownMs(long cooldownMs) {
+            this.cooldownMs = cooldownMs;
+        }
+
+        public int getMaxFiles() {
+            return maxFiles;
+        }
+
+        public void setMaxFiles(int maxFiles) {
+            this.maxFiles = maxFiles;
+        }
+
+        public int getThreadDumpDepth() {
+            return threadDumpDepth;
+        }
+
+        public void setThreadDumpDepth(int threadDumpDepth) {
+            this.threadDumpDepth = threadDumpDepth;
+        }
+    }
+
+    /**
+     * Telemetry governor: sheds instrumentation in stages while the server is over its tick budget.
+     */
+    public static class GovernorConfig {
+        private boolean enabled = false;
+        private long evaluationIntervalMs = 1000;
+        private long tickBudgetMs = 45; // mean time spent in a tick by the slowest world
+        private double handlerBudgetPercent = 5.0; // plugin handler time as a share of wall time
+        private int escalateAfter = 3; // consecutive evaluations over budget before stepping down
+        private int recoverAfter = 30; // consecutive evaluations under budget before stepping up
+        private double recoverRatio = 0.8; // fraction of the budgets load must fall below to count as recovered
+        private int maxLevel = 4;
+        private int blockSampleEvery = 10; // record one in N block events at level 2 and above
+        private int exportIntervalMultiplier = 4; // export interval stretch at level 4
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getEvaluationIntervalMs() {
+            return evaluationIntervalMs;
+        }
+
+        public void setEvaluationIntervalMs(long evaluationIntervalMs) {
+            this.evaluationIntervalMs = evaluationIntervalMs;
+        }
+
+        public long getTickBudgetMs() {
+            return tickBudgetMs;
+        }
+
+        public void setTickBudgetMs(long tickBudgetMs) {
+            this.tickBudgetMs = tickBudgetMs;
+        }
+
+        public double getHandlerBudgetPercent() {
+            return handlerBudgetPercent;
+        }
+
+        public void setHandlerBudgetPercent(double handlerBudgetPercent) {
+            this.handlerBudgetPercent = handlerBudgetPercent;
+        }
+
+        public int getEscalateAfter() {
+            return escalateAfter;
+        }
+
+        public void setEscalateAfter(int escalateAfter) {
+            this.escalateAfter = escalateAfter;
+        }
+
+        public int getRecoverAfter() {
+            return recoverAfter;
+        }
+
+        public void setRecoverAfter(int recoverAfter) {
+            this.recoverAfter = recoverAfter;
+        }
+
+        public double getRecoverRatio() {
+            return recoverRatio;
+        }
+
+        public void setRecoverRatio(double recoverRatio) {
+            this.recoverRatio = recoverRatio;
+        }
+
+        public int getMaxLevel() {
+            return maxLevel;
+        }
+
+        public void setMaxLevel(int maxLevel) {
+            this.maxLevel = maxLevel;
+        }
+
+        public int getBlockSampleEvery() {
+            return blockSampleEvery;
+        }
+
+        public void setBlockSampleEvery(int blockSampleEvery) {
+            this.blockSampleEvery = blockSampleEvery;
+        }
+
+        public int getExportIntervalMultiplier() {
+            return exportIntervalMultiplier;
+        }
+
+        public void setExportIntervalMultiplier(int exportIntervalMultiplier) {
+            this.exportIntervalMultiplier = exportIntervalMultiplier;
+        }
     }
 }
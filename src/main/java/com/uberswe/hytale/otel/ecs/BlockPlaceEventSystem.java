@@ -7,24 +7,25 @@ import com.hypixel.hytale.component.query.Query;
 import com.hypixel.hytale.component.system.EntityEventSystem;
 import com.hypixel.hytale.server.core.event.events.ecs.PlaceBlockEvent;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.uberswe.hytale.otel.telemetry.BlockAttributeCache;
+import com.uberswe.hytale.otel.telemetry.BlockOperationTracer;
+import com.uberswe.hytale.otel.telemetry.HandlerTimings;
 import com.uberswe.hytale.otel.telemetry.TelemetryManager;
-import io.opentelemetry.api.common.AttributeKey;
-import io.opentelemetry.api.common.Attributes;
+import com.uberswe.hytale.otel.telemetry.TopKLabeler;
 
 /**
  * ECS event system that handles block placement events.
  */
 public class BlockPlaceEventSystem extends EntityEventSystem<EntityStore, PlaceBlockEvent> {
-    private static final AttributeKey<String> BLOCK_TYPE = AttributeKey.stringKey("block.type");
-    private static final AttributeKey<Long> BLOCK_X = AttributeKey.longKey("block.x");
-    private static final AttributeKey<Long> BLOCK_Y = AttributeKey.longKey("block.y");
-    private static final AttributeKey<Long> BLOCK_Z = AttributeKey.longKey("block.z");
-
     private final TelemetryManager telemetryManager;
+    private final BlockAttributeCache attributeCache;
+    private final TopKLabeler heldItemLabels;
 
     public BlockPlaceEventSystem(TelemetryManager telemetryManager) {
         super(PlaceBlockEvent.class);
         this.telemetryManager = telemetryManager;
+        this.attributeCache = telemetryManager.getBlockAttributeCache();
+        this.heldItemLabels = telemetryManager.getHeldItemLabels();
     }
 
     @Override
@@ -36,25 +37,24 @@ public class BlockPlaceEventSystem extends EntityEventSystem<EntityStore, PlaceB
     @Override
     public void handle(int entityId, ArchetypeChunk<EntityStore> chunk, Store<EntityStore> store,
                        CommandBuffer<EntityStore> commandBuffer, PlaceBlockEvent event) {
+        long start = System.nanoTime();
         try {
             var targetBlock = event.getTargetBlock();
+            String worldName = WorldNames.of(store);
             var itemInHand = event.getItemInHand();
 
-            String blockTypeName = "unknown";
-            if (itemInHand != null) {
-                blockTypeName = itemInHand.getItemId();
-            }
+            String blockTypeName = heldItemLabels.label(itemInHand != null ? itemInHand.getItemId() : null);
 
-            var attributes = Attributes.builder()
-                    .put(BLOCK_TYPE, blockTypeName)
-                    .put(BLOCK_X, (long) targetBlock.x)
-                    .put(BLOCK_Y, (long) targetBlock.y)
-                    .put(BLOCK_Z, (long) targetBlock.z)
-                    .build();
+            var attributes = attributeCache.get(worldName, blockTypeName,
+                    targetBlock.x, targetBlock.y, targetBlock.z);
 
             telemetryManager.recordBlockPlaced(attributes);
+            telemetryManager.traceBlockOperation(worldName, BlockOperationTracer.OP_PLACE,
+                    targetBlock.x, targetBlock.y, targetBlock.z, attributes);
         } catch (Exception e) {
             // Silently ignore errors to not disrupt game
+        } finally {
+            telemetryManager.recordHandlerTime(HandlerTimings.BLOCK_PLACE, start);
         }
     }
 }
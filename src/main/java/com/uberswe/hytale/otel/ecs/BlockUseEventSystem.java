@@ -7,26 +7,26 @@ import com.hypixel.hytale.component.query.Query;
 import com.hypixel.hytale.component.system.EntityEventSystem;
 import com.hypixel.hytale.server.core.event.events.ecs.UseBlockEvent;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.uberswe.hytale.otel.telemetry.BlockAttributeCache;
+import com.uberswe.hytale.otel.telemetry.BlockOperationTracer;
+import com.uberswe.hytale.otel.telemetry.HandlerTimings;
 import com.uberswe.hytale.otel.telemetry.TelemetryManager;
-import io.opentelemetry.api.common.AttributeKey;
-import io.opentelemetry.api.common.Attributes;
+import com.uberswe.hytale.otel.telemetry.TopKLabeler;
 
 /**
  * ECS event system that handles block use/interaction events.
  * Uses the Post event to record successful interactions.
  */
 public class BlockUseEventSystem extends EntityEventSystem<EntityStore, UseBlockEvent.Post> {
-    private static final AttributeKey<String> BLOCK_TYPE = AttributeKey.stringKey("block.type");
-    private static final AttributeKey<String> INTERACTION_TYPE = AttributeKey.stringKey("interaction.type");
-    private static final AttributeKey<Long> BLOCK_X = AttributeKey.longKey("block.x");
-    private static final AttributeKey<Long> BLOCK_Y = AttributeKey.longKey("block.y");
-    private static final AttributeKey<Long> BLOCK_Z = AttributeKey.longKey("block.z");
-
     private final TelemetryManager telemetryManager;
+    private final BlockAttributeCache attributeCache;
+    private final TopKLabeler blockTypeLabels;
 
     public BlockUseEventSystem(TelemetryManager telemetryManager) {
         super(UseBlockEvent.Post.class);
         this.telemetryManager = telemetryManager;
+        this.attributeCache = telemetryManager.getBlockAttributeCache();
+        this.blockTypeLabels = telemetryManager.getBlockTypeLabels();
     }
 
     @Override
@@ -38,32 +38,25 @@ public class BlockUseEventSystem extends EntityEventSystem<EntityStore, UseBlock
     @Override
     public void handle(int entityId, ArchetypeChunk<EntityStore> chunk, Store<EntityStore> store,
                        CommandBuffer<EntityStore> commandBuffer, UseBlockEvent.Post event) {
+        long start = System.nanoTime();
         try {
             var targetBlock = event.getTargetBlock();
+            String worldName = WorldNames.of(store);
             var blockType = event.getBlockType();
-            var interactionType = event.getInteractionType();
-
-            String blockTypeName = "unknown";
-            if (blockType != null) {
-                blockTypeName = blockType.getId();
-            }
 
-            String interactionTypeName = "unknown";
-            if (interactionType != null) {
-                interactionTypeName = interactionType.name();
-            }
+            String blockTypeName = blockTypeLabels.label(blockType != null ? blockType.getId() : null);
 
-            var attributes = Attributes.builder()
-                    .put(BLOCK_TYPE, blockTypeName)
-                    .put(INTERACTION_TYPE, interactionTypeName)
-                    .put(BLOCK_X, (long) targetBlock.x)
-                    .put(BLOCK_Y, (long) targetBlock.y)
-                    .put(BLOCK_Z, (long) targetBlock.z)
-                    .build();
+            // Interaction type is keyed by ordinal; a null type is reported as "unknown"
+            var attributes = attributeCache.get(worldName, blockTypeName, event.getInteractionType(),
+                    targetBlock.x, targetBlock.y, targetBlock.z);
 
             telemetryManager.recordBlockInteraction(attributes);
+            telemetryManager.traceBlockOperation(worldName, BlockOperationTracer.OP_USE,
+                    targetBlock.x, targetBlock.y, targetBlock.z, attributes);
         } catch (Exception e) {
             // Silently ignore errors to not disrupt game
+        } finally {
+            telemetryManager.recordHandlerTime(HandlerTimings.BLOCK_USE, start);
         }
     }
 }
@@ -0,0 +1,24 @@
+package com.uberswe.hytale.otel.ecs;
+
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+/**
+ * Resolves the name of the world that owns an entity store.
+ */
+final class WorldNames {
+
+    private WorldNames() {
+    }
+
+    static String of(Store<EntityStore> store) {
+        if (store == null) {
+            return null;
+        }
+        EntityStore entityStore = store.getExternalData();
+        if (entityStore == null || entityStore.getWorld() == null) {
+            return null;
+        }
+        return entityStore.getWorld().getName();
+    }
+}
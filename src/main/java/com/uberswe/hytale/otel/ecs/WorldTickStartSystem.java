@@ -0,0 +1,36 @@
+package com.uberswe.hytale.otel.ecs;
+
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.dependency.Dependency;
+import com.hypixel.hytale.component.dependency.RootDependency;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.uberswe.hytale.otel.telemetry.TelemetryManager;
+
+import java.util.Set;
+
+/**
+ * Ticking system ordered before every other system of the store. Marks the start of
+ * a world tick; {@link WorldTickSystem}, ordered last, marks its end.
+ */
+public class WorldTickStartSystem extends TickingSystem<EntityStore> {
+    private final TelemetryManager telemetryManager;
+
+    public WorldTickStartSystem(TelemetryManager telemetryManager) {
+        this.telemetryManager = telemetryManager;
+    }
+
+    @Override
+    public Set<Dependency<EntityStore>> getDependencies() {
+        return Set.of(RootDependency.first());
+    }
+
+    @Override
+    public void tick(float dt, int systemIndex, Store<EntityStore> store) {
+        try {
+            telemetryManager.recordWorldTickStart(WorldNames.of(store), System.nanoTime());
+        } catch (Exception e) {
+            // Silently ignore errors to not disrupt game
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.uberswe.hytale.otel.ecs;
+
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.dependency.Dependency;
+import com.hypixel.hytale.component.dependency.RootDependency;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.uberswe.hytale.otel.telemetry.HandlerTimings;
+import com.uberswe.hytale.otel.telemetry.TelemetryManager;
+
+import java.util.Set;
+
+/**
+ * Ticking system ordered after every other system of the store. Marks the end of a
+ * world tick, so that together with {@link WorldTickStartSystem} the time spent in the
+ * tick itself is measured, and closes the per-tick block operation spans.
+ */
+public class WorldTickSystem extends TickingSystem<EntityStore> {
+    private final TelemetryManager telemetryManager;
+
+    public WorldTickSystem(TelemetryManager telemetryManager) {
+        this.telemetryManager = telemetryManager;
+    }
+
+    @Override
+    public Set<Dependency<EntityStore>> getDependencies() {
+        return Set.of(RootDependency.last());
+    }
+
+    @Override
+    public void tick(float dt, int systemIndex, Store<EntityStore> store) {
+        long start = System.nanoTime();
+        try {
+            telemetryManager.recordWorldTick(WorldNames.of(store), start);
+        } catch (Exception e) {
+            // Silently ignore errors to not disrupt game
+        } finally {
+            telemetryManager.recordHandlerTime(HandlerTimings.WORLD_TICK, start);
+        }
+    }
+}
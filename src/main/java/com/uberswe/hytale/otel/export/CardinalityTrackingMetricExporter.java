@@ -0,0 +1,99 @@
+package com.uberswe.hytale.otel.export;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.export.MemoryMode;
+import io.opentelemetry.sdk.metrics.Aggregation;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.PointData;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Metric exporter that records, per metric, whether its latest export held an overflow
+ * series before delegating.
+ *
+ * When an instrument reaches the reader's cardinality limit, the SDK folds further
+ * attribute sets into a single series carrying {@code otel.metric.overflow=true}.
+ * Under cumulative temporality that series is exported every interval once it exists,
+ * so counting exports that contain it would only measure elapsed time. Instead the
+ * latest state is exposed through {@link #forEachOverflow} so that it can be reported
+ * as a gauge. The number of series in each metric's latest export is kept as well and
+ * exposed through {@link #forEachSeriesCount}.
+ */
+public class CardinalityTrackingMetricExporter implements MetricExporter {
+    private static final AttributeKey<Boolean> OVERFLOW = AttributeKey.booleanKey("otel.metric.overflow");
+
+    private final MetricExporter delegate;
+    // Only metrics that have overflowed at least once, so the gauge stays small
+    private final Map<String, Boolean> overflowing = new ConcurrentHashMap<>();
+    private final Map<String, Integer> seriesCounts = new ConcurrentHashMap<>();
+
+    public CardinalityTrackingMetricExporter(MetricExporter delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<MetricData> metrics) {
+        for (MetricData metric : metrics) {
+            Collection<? extends PointData> points = metric.getData().getPoints();
+            seriesCounts.put(metric.getName(), points.size());
+            boolean overflowed = false;
+            for (PointData point : points) {
+                if (Boolean.TRUE.equals(point.getAttributes().get(OVERFLOW))) {
+                    overflowed = true;
+                    break;
+                }
+            }
+            if (overflowed || overflowing.containsKey(metric.getName())) {
+                overflowing.put(metric.getName(), overflowed);
+            }
+        }
+        return delegate.export(metrics);
+    }
+
+    /**
+     * Visit each metric that has overflowed, with whether its latest export held the overflow series.
+     */
+    public void forEachOverflow(BiConsumer<String, Boolean> consumer) {
+        overflowing.forEach(consumer);
+    }
+
+    /**
+     * Visit the number of series in the latest export of each metric.
+     */
+    public void forEachSeriesCount(BiConsumer<String, Integer> consumer) {
+        seriesCounts.forEach(consumer);
+    }
+
+    @Override
+    public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+        return delegate.getAggregationTemporality(instrumentType);
+    }
+
+    @Override
+    public Aggregation getDefaultAggregation(InstrumentType instrumentType) {
+        return delegate.getDefaultAggregation(instrumentType);
+    }
+
+    @Override
+    public MemoryMode getMemoryMode() {
+        return delegate.getMemoryMode();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+}
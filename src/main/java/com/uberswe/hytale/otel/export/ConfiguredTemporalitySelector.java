@@ -0,0 +1,92 @@
+package com.uberswe.hytale.otel.export;
+
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.export.AggregationTemporalitySelector;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Aggregation temporality chosen per instrument type from configuration.
+ *
+ * The "default" key accepts "cumulative", "delta" or "lowmemory" (delta for counters
+ * and histograms, cumulative for up-down counters, as in the SDK's low-memory
+ * selector). Other keys are lower-case instrument type names, e.g. "histogram" or
+ * "observable_counter", and accept "cumulative" or "delta".
+ */
+public class ConfiguredTemporalitySelector implements AggregationTemporalitySelector {
+    private final Map<InstrumentType, AggregationTemporality> temporalities = new EnumMap<>(InstrumentType.class);
+    private final List<String> invalidEntries = new ArrayList<>();
+
+    public ConfiguredTemporalitySelector(Map<String, String> config) {
+        String preset = config.getOrDefault("default", "cumulative").toLowerCase(Locale.ROOT);
+        for (InstrumentType type : InstrumentType.values()) {
+            temporalities.put(type, presetTemporality(preset, type));
+        }
+        if (!preset.equals("cumulative") && !preset.equals("delta") && !preset.equals("lowmemory")) {
+            invalidEntries.add("default=" + preset);
+        }
+
+        for (var entry : config.entrySet()) {
+            if (entry.getKey().equals("default")) {
+                continue;
+            }
+            InstrumentType type = instrumentType(entry.getKey());
+            AggregationTemporality temporality = temporality(entry.getValue());
+            if (type == null || temporality == null) {
+                invalidEntries.add(entry.getKey() + "=" + entry.getValue());
+            } else {
+                temporalities.put(type, temporality);
+            }
+        }
+    }
+
+    @Override
+    public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+        return temporalities.get(instrumentType);
+    }
+
+    /**
+     * Entries that were not understood and left at the preset.
+     */
+    public List<String> getInvalidEntries() {
+        return invalidEntries;
+    }
+
+    private static AggregationTemporality presetTemporality(String preset, InstrumentType type) {
+        return switch (preset) {
+            case "delta" -> switch (type) {
+                case UP_DOWN_COUNTER, OBSERVABLE_UP_DOWN_COUNTER -> AggregationTemporality.CUMULATIVE;
+                default -> AggregationTemporality.DELTA;
+            };
+            case "lowmemory" -> switch (type) {
+                case COUNTER, HISTOGRAM -> AggregationTemporality.DELTA;
+                default -> AggregationTemporality.CUMULATIVE;
+            };
+            default -> AggregationTemporality.CUMULATIVE;
+        };
+    }
+
+    private static InstrumentType instrumentType(String name) {
+        try {
+            return InstrumentType.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static AggregationTemporality temporality(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "cumulative" -> AggregationTemporality.CUMULATIVE;
+            case "delta" -> AggregationTemporality.DELTA;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,336 @@
+package com.uberswe.hytale.otel.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Persistent FIFO of serialized export requests, stored in memory-mapped segment files.
+ *
+ * Each segment file has a small header (magic, read offset) followed by records of
+ * [int length][byte type][payload]. A record's length is written last, so a record
+ * torn by a crash reads as the end of the segment. The read offset is kept in the
+ * segment header, so replay resumes where it stopped after a restart.
+ *
+ * Segments are fixed-size. When a new segment is needed and the spool is at its
+ * size cap, the oldest segment is deleted and its unread records are counted as
+ * evicted. At most the head and tail segments are mapped at any time.
+ */
+public class DiskSpool implements Closeable {
+    public static final byte TYPE_METRICS = 1;
+    public static final byte TYPE_TRACES = 2;
+
+    private static final int MAGIC = 0x48435350;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 5;
+    private static final String SEGMENT_PREFIX = "spool-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private long nextSegmentId;
+    private volatile long evicted;
+
+    private DiskSpool(Path directory, int segmentSize, int maxSegments) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * Open the spool in a directory, recovering any segments left by a previous run.
+     */
+    public static DiskSpool open(Path directory, long maxBytes, int segmentSize) throws IOException {
+        int size = Math.max(HEADER_SIZE + RECORD_HEADER_SIZE + 1, segmentSize);
+        int maxSegments = (int) Math.max(2, Math.min(Integer.MAX_VALUE, maxBytes / size));
+        DiskSpool spool = new DiskSpool(directory, size, maxSegments);
+        Files.createDirectories(directory);
+        spool.recover();
+        return spool;
+    }
+
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(Comparator.comparingLong(DiskSpool::segmentId));
+
+        for (Path file : files) {
+            long id = segmentId(file);
+            if (id < 0 || Files.size(file) != segmentSize) {
+                // Unknown file or written with a different segment size
+                Files.deleteIfExists(file);
+                continue;
+            }
+            Segment segment = new Segment(id, file);
+            segment.map();
+            if (segment.buffer.getInt(0) != MAGIC || !segment.scan()) {
+                segment.delete();
+                continue;
+            }
+            nextSegmentId = id + 1;
+            if (segment.isFullyRead()) {
+                segment.delete();
+            } else {
+                segment.unmap();
+                segments.addLast(segment);
+            }
+        }
+        while (segments.size() > maxSegments) {
+            evict();
+        }
+    }
+
+    /**
+     * Append a record.
+     *
+     * @return false if the payload does not fit in a segment or could not be written
+     */
+    public synchronized boolean append(byte type, byte[] payload) {
+        int recordSize = RECORD_HEADER_SIZE + payload.length;
+        if (HEADER_SIZE + recordSize > segmentSize) {
+            evicted++;
+            return false;
+        }
+        try {
+            Segment tail = segments.peekLast();
+            if (tail == null || tail.writeOffset + recordSize > segmentSize) {
+                tail = newSegment();
+            }
+            tail.map();
+            MappedByteBuffer buffer = tail.buffer;
+            int offset = tail.writeOffset;
+            buffer.put(offset + 4, type);
+            buffer.put(offset + RECORD_HEADER_SIZE, payload);
+            buffer.putInt(offset, payload.length);
+            tail.writeOffset = offset + recordSize;
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The oldest unread record, or null if the spool is empty. The record stays in the
+     * spool until {@link #commit} is called with it.
+     */
+    public synchronized Record peek() throws IOException {
+        Segment head = segments.peekFirst();
+        while (head != null && head.isFullyRead() && head != segments.peekLast()) {
+            segments.removeFirst().delete();
+            head = segments.peekFirst();
+        }
+        if (head == null || head.isFullyRead()) {
+            return null;
+        }
+        head.map();
+        int offset = head.readOffset;
+        int length = head.buffer.getInt(offset);
+        byte type = head.buffer.get(offset + 4);
+        byte[] payload = new byte[length];
+        head.buffer.get(offset + RECORD_HEADER_SIZE, payload);
+        return new Record(type, payload, head, offset + RECORD_HEADER_SIZE + length);
+    }
+
+    /**
+     * Mark a record returned by {@link #peek} as consumed.
+     */
+    public synchronized void commit(Record record) {
+        Segment segment = record.segment;
+        if (segments.peekFirst() != segment || segment.readOffset >= record.nextOffset) {
+            // The segment was evicted while the record was being replayed
+            return;
+        }
+        segment.readOffset = record.nextOffset;
+        segment.buffer.putInt(4, segment.readOffset);
+        if (segment.isFullyRead() && segment != segments.peekLast()) {
+            segments.removeFirst().delete();
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        for (Segment segment : segments) {
+            if (!segment.isFullyRead()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bytes of unread records.
+     */
+    public synchronized long sizeBytes() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.writeOffset - segment.readOffset;
+        }
+        return size;
+    }
+
+    /**
+     * Records dropped because the spool was full or a record was larger than a segment.
+     */
+    public long getEvicted() {
+        return evicted;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            segment.flush();
+            segment.unmap();
+        }
+    }
+
+    private Segment newSegment() throws IOException {
+        while (segments.size() >= maxSegments) {
+            evict();
+        }
+        Segment previous = segments.peekLast();
+        if (previous != null && previous != segments.peekFirst()) {
+            previous.flush();
+            previous.unmap();
+        }
+        long id = nextSegmentId++;
+        Segment segment = new Segment(id, directory.resolve(SEGMENT_PREFIX + id + SEGMENT_SUFFIX));
+        segment.map();
+        segment.buffer.putInt(0, MAGIC);
+        segment.buffer.putInt(4, HEADER_SIZE);
+        segment.readOffset = HEADER_SIZE;
+        segment.writeOffset = HEADER_SIZE;
+        segments.addLast(segment);
+        return segment;
+    }
+
+    private void evict() throws IOException {
+        Segment oldest = segments.removeFirst();
+        oldest.map();
+        evicted += oldest.unreadRecords();
+        oldest.delete();
+    }
+
+    private static long segmentId(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * A record read from the spool.
+     */
+    public static final class Record {
+        private final byte type;
+        private final byte[] payload;
+        private final Segment segment;
+        private final int nextOffset;
+
+        private Record(byte type, byte[] payload, Segment segment, int nextOffset) {
+            this.type = type;
+            this.payload = payload;
+            this.segment = segment;
+            this.nextOffset = nextOffset;
+        }
+
+        public byte getType() {
+            return type;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+
+    private final class Segment {
+        final long id;
+        final Path path;
+        MappedByteBuffer buffer;
+        int readOffset;
+        int writeOffset;
+
+        Segment(long id, Path path) {
+            this.id = id;
+            this.path = path;
+        }
+
+        void map() throws IOException {
+            if (buffer != null) {
+                return;
+            }
+            // The mapping stays valid after the channel is closed
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            }
+        }
+
+        void unmap() {
+            buffer = null;
+        }
+
+        void flush() {
+            if (buffer != null) {
+                buffer.force();
+            }
+        }
+
+        /**
+         * Recover the read and write offsets of a mapped segment.
+         *
+         * @return false if the header is corrupt
+         */
+        boolean scan() {
+            int offset = HEADER_SIZE;
+            while (offset + RECORD_HEADER_SIZE <= segmentSize) {
+                int length = buffer.getInt(offset);
+                if (length <= 0 || offset + RECORD_HEADER_SIZE + length > segmentSize) {
+                    break;
+                }
+                offset += RECORD_HEADER_SIZE + length;
+            }
+            writeOffset = offset;
+            readOffset = buffer.getInt(4);
+            return readOffset >= HEADER_SIZE && readOffset <= writeOffset;
+        }
+
+        int unreadRecords() {
+            int count = 0;
+            int offset = readOffset;
+            while (offset < writeOffset) {
+                offset += RECORD_HEADER_SIZE + buffer.getInt(offset);
+                count++;
+            }
+            return count;
+        }
+
+        boolean isFullyRead() {
+            return readOffset >= writeOffset;
+        }
+
+        void delete() {
+            unmap();
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // Left behind; dropped on the next start because it is not in the segment list
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.uberswe.hytale.otel.export;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and failure tally for the exports of one signal.
+ *
+ * Exporters are built before the meter that reports on them, so the duration
+ * histogram is bound afterwards; exports completing before that are only counted.
+ */
+public class ExportTimer {
+    private static final AttributeKey<String> SIGNAL = AttributeKey.stringKey("signal");
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final Attributes attributes;
+    private final LongAdder failures = new LongAdder();
+    private volatile DoubleHistogram duration;
+
+    public ExportTimer(String signal) {
+        this.attributes = Attributes.of(SIGNAL, signal);
+    }
+
+    public void bind(DoubleHistogram duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * Record the export's latency and outcome when it completes.
+     *
+     * @param startNanos {@link System#nanoTime} taken before the export was started
+     */
+    public CompletableResultCode track(long startNanos, CompletableResultCode result) {
+        result.whenComplete(() -> {
+            DoubleHistogram histogram = duration;
+            if (histogram != null) {
+                histogram.record((System.nanoTime() - startNanos) / NANOS_PER_SECOND, attributes);
+            }
+            if (!result.isSuccess()) {
+                failures.increment();
+            }
+        });
+        return result;
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public Attributes getAttributes() {
+        return attributes;
+    }
+}
@@ -0,0 +1,98 @@
+package com.uberswe.hytale.otel.export;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.export.MemoryMode;
+import io.opentelemetry.sdk.metrics.Aggregation;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Metric exporter that only forwards metrics whose name passes a filter.
+ *
+ * Used to give each reader group its own set of instruments. Batches with no
+ * matching metrics are not forwarded at all.
+ */
+public class FilteringMetricExporter implements MetricExporter {
+    private final MetricExporter delegate;
+    private final Predicate<String> filter;
+
+    public FilteringMetricExporter(MetricExporter delegate, Predicate<String> filter) {
+        this.delegate = delegate;
+        this.filter = filter;
+    }
+
+    /**
+     * Predicate matching names against glob patterns, where * matches any run of
+     * characters and ? a single character.
+     */
+    public static Predicate<String> globs(Collection<String> patterns) {
+        List<Pattern> compiled = new ArrayList<>(patterns.size());
+        for (String pattern : patterns) {
+            StringBuilder regex = new StringBuilder(pattern.length() + 8);
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                switch (c) {
+                    case '*' -> regex.append(".*");
+                    case '?' -> regex.append('.');
+                    default -> regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            compiled.add(Pattern.compile(regex.toString()));
+        }
+        return name -> {
+            for (Pattern pattern : compiled) {
+                if (pattern.matcher(name).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<MetricData> metrics) {
+        List<MetricData> selected = new ArrayList<>(metrics.size());
+        for (MetricData metric : metrics) {
+            if (filter.test(metric.getName())) {
+                selected.add(metric);
+            }
+        }
+        if (selected.isEmpty()) {
+            return CompletableResultCode.ofSuccess();
+        }
+        return delegate.export(selected);
+    }
+
+    @Override
+    public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+        return delegate.getAggregationTemporality(instrumentType);
+    }
+
+    @Override
+    public Aggregation getDefaultAggregation(InstrumentType instrumentType) {
+        return delegate.getDefaultAggregation(instrumentType);
+    }
+
+    @Override
+    public MemoryMode getMemoryMode() {
+        return delegate.getMemoryMode();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+}
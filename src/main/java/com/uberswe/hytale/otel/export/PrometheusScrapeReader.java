@@ -0,0 +1,113 @@
+package com.uberswe.hytale.otel.export;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.export.CollectionRegistration;
+import io.opentelemetry.sdk.metrics.export.MetricReader;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pull-based metric reader that serves the meter provider's state to Prometheus.
+ *
+ * Metrics are only collected and serialized when /metrics is scraped, on a small
+ * fixed pool of daemon threads. Scrapes are serialized through one reused
+ * {@link PrometheusTextFormat} buffer. Prometheus expects cumulative values, so this
+ * reader always requests cumulative temporality.
+ */
+public class PrometheusScrapeReader implements MetricReader {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final String host;
+    private final int port;
+    private final int threads;
+    private final PrometheusTextFormat format = new PrometheusTextFormat();
+    private volatile CollectionRegistration registration;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public PrometheusScrapeReader(String host, int port, int threads) {
+        this.host = host;
+        this.port = port;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Bind the HTTP endpoint and start serving scrapes.
+     */
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "hotel-c-prometheus-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+        server.start();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            boolean head = "HEAD".equals(method);
+            if (!head && !"GET".equals(method)) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            CollectionRegistration current = registration;
+            if (current == null) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            synchronized (format) {
+                ByteBuffer body = format.write(current.collectAllMetrics());
+                exchange.sendResponseHeaders(200, head ? -1 : body.remaining());
+                if (!head) {
+                    exchange.getResponseBody().write(body.array(), body.arrayOffset() + body.position(),
+                            body.remaining());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void register(CollectionRegistration registration) {
+        this.registration = registration;
+    }
+
+    @Override
+    public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+        return AggregationTemporality.CUMULATIVE;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    public int getPort() {
+        return server != null ? server.getAddress().getPort() : port;
+    }
+}
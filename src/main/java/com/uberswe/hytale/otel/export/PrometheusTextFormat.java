@@ -0,0 +1,280 @@
+package com.uberswe.hytale.otel.export;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramBuckets;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.SumData;
+import io.opentelemetry.sdk.resources.Resource;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes collected metrics in the Prometheus text exposition format (0.0.4).
+ *
+ * Names follow the OpenTelemetry-to-Prometheus conventions used by the collector:
+ * dots become underscores, the unit is appended as a suffix and monotonic sums get
+ * {@code _total}. Exponential histograms are written as classic histograms with one
+ * bucket per exponential bucket. Resource attributes are exposed once as
+ * {@code target_info}.
+ *
+ * The text and encoded byte buffers are reused between scrapes, so an instance is
+ * not thread-safe.
+ */
+public final class PrometheusTextFormat {
+    private static final int INITIAL_CAPACITY = 16 * 1024;
+
+    private final StringBuilder text = new StringBuilder(INITIAL_CAPACITY);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private ByteBuffer bytes = ByteBuffer.allocate(INITIAL_CAPACITY);
+
+    /**
+     * Serialize metrics into the reused buffer.
+     *
+     * @return the encoded body; valid until the next call
+     */
+    public ByteBuffer write(Collection<MetricData> metrics) {
+        text.setLength(0);
+        Resource resource = null;
+        for (MetricData metric : metrics) {
+            if (resource == null) {
+                resource = metric.getResource();
+            }
+            writeMetric(metric);
+        }
+        if (resource != null) {
+            writeTargetInfo(resource.getAttributes());
+        }
+        return encode();
+    }
+
+    private void writeMetric(MetricData metric) {
+        String baseName = metricName(metric.getName(), metric.getUnit());
+        switch (metric.getType()) {
+            case LONG_GAUGE -> {
+                writeHeader(baseName, "gauge", metric.getDescription());
+                for (LongPointData point : metric.getLongGaugeData().getPoints()) {
+                    writeSample(baseName, point.getAttributes(), null, null, point.getValue());
+                }
+            }
+            case DOUBLE_GAUGE -> {
+                writeHeader(baseName, "gauge", metric.getDescription());
+                for (DoublePointData point : metric.getDoubleGaugeData().getPoints()) {
+                    writeSample(baseName, point.getAttributes(), null, null, point.getValue());
+                }
+            }
+            case LONG_SUM -> {
+                SumData<LongPointData> sum = metric.getLongSumData();
+                String name = sum.isMonotonic() ? counterName(baseName) : baseName;
+                writeHeader(name, sum.isMonotonic() ? "counter" : "gauge", metric.getDescription());
+                for (LongPointData point : sum.getPoints()) {
+                    writeSample(name, point.getAttributes(), null, null, point.getValue());
+                }
+            }
+            case DOUBLE_SUM -> {
+                SumData<DoublePointData> sum = metric.getDoubleSumData();
+                String name = sum.isMonotonic() ? counterName(baseName) : baseName;
+                writeHeader(name, sum.isMonotonic() ? "counter" : "gauge", metric.getDescription());
+                for (DoublePointData point : sum.getPoints()) {
+                    writeSample(name, point.getAttributes(), null, null, point.getValue());
+                }
+            }
+            case HISTOGRAM -> {
+                writeHeader(baseName, "histogram", metric.getDescription());
+                for (HistogramPointData point : metric.getHistogramData().getPoints()) {
+                    writeHistogram(baseName, point);
+                }
+            }
+            case EXPONENTIAL_HISTOGRAM -> {
+                writeHeader(baseName, "histogram", metric.getDescription());
+                for (ExponentialHistogramPointData point : metric.getExponentialHistogramData().getPoints()) {
+                    writeExponentialHistogram(baseName, point);
+                }
+            }
+            default -> {
+                // Summaries are not produced by this plugin
+            }
+        }
+    }
+
+    private void writeHistogram(String name, HistogramPointData point) {
+        Attributes attributes = point.getAttributes();
+        List<Double> boundaries = point.getBoundaries();
+        List<Long> counts = point.getCounts();
+        long cumulative = 0;
+        for (int i = 0; i < boundaries.size(); i++) {
+            cumulative += counts.get(i);
+            writeSample(name + "_bucket", attributes, "le", formatDouble(boundaries.get(i)), cumulative);
+        }
+        writeSample(name + "_bucket", attributes, "le", "+Inf", point.getCount());
+        writeSample(name + "_sum", attributes, null, null, point.getSum());
+        writeSample(name + "_count", attributes, null, null, point.getCount());
+    }
+
+    private void writeExponentialHistogram(String name, ExponentialHistogramPointData point) {
+        Attributes attributes = point.getAttributes();
+        ExponentialHistogramBuckets positive = point.getPositiveBuckets();
+        double base = Math.pow(2, Math.pow(2, -point.getScale()));
+        // Zero and negative observations fall below every positive bucket
+        long cumulative = point.getZeroCount() + point.getNegativeBuckets().getTotalCount();
+        List<Long> counts = positive.getBucketCounts();
+        for (int i = 0; i < counts.size(); i++) {
+            cumulative += counts.get(i);
+            double upperBound = Math.pow(base, positive.getOffset() + i + 1);
+            writeSample(name + "_bucket", attributes, "le", formatDouble(upperBound), cumulative);
+        }
+        writeSample(name + "_bucket", attributes, "le", "+Inf", point.getCount());
+        writeSample(name + "_sum", attributes, null, null, point.getSum());
+        writeSample(name + "_count", attributes, null, null, point.getCount());
+    }
+
+    private void writeTargetInfo(Attributes resourceAttributes) {
+        writeHeader("target_info", "gauge", "Target metadata");
+        writeSample("target_info", resourceAttributes, null, null, 1);
+    }
+
+    private void writeHeader(String name, String type, String description) {
+        if (description != null && !description.isEmpty()) {
+            text.append("# HELP ").append(name).append(' ');
+            escape(description, false);
+            text.append('\n');
+        }
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private void writeSample(String name, Attributes attributes, String extraLabel, String extraValue, long value) {
+        writeLabels(name, attributes, extraLabel, extraValue);
+        text.append(value).append('\n');
+    }
+
+    private void writeSample(String name, Attributes attributes, String extraLabel, String extraValue, double value) {
+        writeLabels(name, attributes, extraLabel, extraValue);
+        text.append(formatDouble(value)).append('\n');
+    }
+
+    private void writeLabels(String name, Attributes attributes, String extraLabel, String extraValue) {
+        text.append(name);
+        boolean first = true;
+        for (Map.Entry<AttributeKey<?>, Object> entry : attributes.asMap().entrySet()) {
+            text.append(first ? '{' : ',');
+            first = false;
+            appendSanitized(entry.getKey().getKey());
+            text.append("=\"");
+            escape(String.valueOf(entry.getValue()), true);
+            text.append('"');
+        }
+        if (extraLabel != null) {
+            text.append(first ? '{' : ',').append(extraLabel).append("=\"").append(extraValue).append('"');
+            first = false;
+        }
+        if (!first) {
+            text.append('}');
+        }
+        text.append(' ');
+    }
+
+    private void escape(String value, boolean quotes) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> text.append("\\\\");
+                case '\n' -> text.append("\\n");
+                case '"' -> text.append(quotes ? "\\\"" : "\"");
+                default -> text.append(c);
+            }
+        }
+    }
+
+    private void appendSanitized(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            text.append(isNameChar(c, i) ? c : '_');
+        }
+    }
+
+    private ByteBuffer encode() {
+        CharBuffer chars = CharBuffer.wrap(text);
+        bytes.clear();
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, true);
+            if (result.isOverflow()) {
+                ByteBuffer grown = ByteBuffer.allocate(bytes.capacity() * 2);
+                bytes.flip();
+                grown.put(bytes);
+                bytes = grown;
+            } else {
+                break;
+            }
+        }
+        encoder.flush(bytes);
+        bytes.flip();
+        return bytes;
+    }
+
+    static String metricName(String name, String unit) {
+        StringBuilder sanitized = new StringBuilder(name.length() + 16);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            sanitized.append(isNameChar(c, i) ? c : '_');
+        }
+        String suffix = unitSuffix(unit);
+        if (suffix != null && !sanitized.toString().endsWith("_" + suffix)) {
+            sanitized.append('_').append(suffix);
+        }
+        return sanitized.toString();
+    }
+
+    private static boolean isNameChar(char c, int index) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == ':'
+                || (c >= '0' && c <= '9' && index > 0);
+    }
+
+    private static String counterName(String name) {
+        return name.endsWith("_total") ? name : name + "_total";
+    }
+
+    /**
+     * Prometheus suffix for a UCUM unit, or null for annotations like {players} and dimensionless units.
+     */
+    private static String unitSuffix(String unit) {
+        if (unit == null || unit.isEmpty() || unit.startsWith("{") || unit.equals("1")) {
+            return null;
+        }
+        return switch (unit) {
+            case "s" -> "seconds";
+            case "ms" -> "milliseconds";
+            case "us" -> "microseconds";
+            case "ns" -> "nanoseconds";
+            case "By" -> "bytes";
+            case "KiBy" -> "kibibytes";
+            case "MiBy" -> "mebibytes";
+            case "%" -> "percent";
+            default -> null;
+        };
+    }
+
+    private static String formatDouble(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,101 @@
+package com.uberswe.hytale.otel.export;
+
+import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives periodic metric readers from the plugin scheduler so that their export
+ * intervals can change at runtime.
+ *
+ * Readers are built with {@link #SELF_SCHEDULE_DISABLED} as their interval, so their
+ * own schedule never fires, and are flushed here at their current interval instead.
+ * Changing an interval cancels the pending export and schedules the next one at the
+ * new interval. The final export on shutdown is still done by the reader itself.
+ * {@code forceFlush()} also flushes the reader's exporter after each export, so
+ * exporters behind a scheduled reader see a flush on every interval.
+ */
+public class ReaderScheduler {
+    public static final Duration SELF_SCHEDULE_DISABLED = Duration.ofDays(365);
+
+    private static final long MIN_INTERVAL_MS = 100;
+
+    // Guarded by this
+    private final List<Entry> entries = new ArrayList<>();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Add a reader. Readers are addressed by the order they were added in.
+     */
+    public synchronized void add(PeriodicMetricReader reader, long intervalMs) {
+        entries.add(new Entry(reader, intervalMs));
+    }
+
+    public synchronized void start(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+        for (Entry entry : entries) {
+            schedule(entry);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getInterval(int index) {
+        return entries.get(index).intervalMs;
+    }
+
+    /**
+     * Change the export interval of a reader, counted from now.
+     */
+    public synchronized void setInterval(int index, long intervalMs) {
+        Entry entry = entries.get(index);
+        if (entry.intervalMs == intervalMs) {
+            return;
+        }
+        entry.intervalMs = intervalMs;
+        entry.generation++;
+        if (entry.next != null) {
+            entry.next.cancel(false);
+            schedule(entry);
+        }
+    }
+
+    private void schedule(Entry entry) {
+        int generation = entry.generation;
+        entry.next = scheduler.schedule(() -> run(entry, generation), Math.max(MIN_INTERVAL_MS, entry.intervalMs),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void run(Entry entry, int generation) {
+        try {
+            entry.reader.forceFlush();
+        } catch (RuntimeException e) {
+            // Export failures are the exporter's to report; keep the schedule going
+        }
+        synchronized (this) {
+            // An interval change during the export has already scheduled the next one
+            if (generation == entry.generation && !scheduler.isShutdown()) {
+                schedule(entry);
+            }
+        }
+    }
+
+    private static final class Entry {
+        final PeriodicMetricReader reader;
+        long intervalMs;
+        int generation;
+        ScheduledFuture<?> next;
+
+        Entry(PeriodicMetricReader reader, long intervalMs) {
+            this.reader = reader;
+            this.intervalMs = intervalMs;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.uberswe.hytale.otel.export;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Replays spooled export requests, oldest first, over OTLP/HTTP.
+ *
+ * Spooled records are already-encoded OTLP protobuf requests, so they are posted
+ * as-is to the collector's /v1/metrics and /v1/traces endpoints. Replay stops at
+ * the first retryable failure and resumes on the next run. Records rejected as
+ * malformed are discarded so they cannot block the spool.
+ */
+public class SpoolReplayer {
+    private final DiskSpool spool;
+    private final HytaleLogger logger;
+    private final URI metricsUri;
+    private final URI tracesUri;
+    private final Map<String, String> headers;
+    private final Duration timeout;
+    private final boolean gzip;
+    private final HttpClient client;
+    private ScheduledExecutorService executor;
+    private boolean replaying;
+
+    public SpoolReplayer(DiskSpool spool, HytaleLogger logger, String endpoint, Map<String, String> headers,
+                         long timeoutMs, boolean gzip) {
+        this.spool = spool;
+        this.logger = logger;
+        this.metricsUri = URI.create(endpoint + "/v1/metrics");
+        this.tracesUri = URI.create(endpoint + "/v1/traces");
+        this.headers = headers;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.gzip = gzip;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    public void start(long intervalMs) {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hotel-c-spool-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::replay, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void replay() {
+        int replayed = 0;
+        try {
+            DiskSpool.Record record;
+            while (!Thread.currentThread().isInterrupted() && (record = spool.peek()) != null) {
+                if (!replaying) {
+                    replaying = true;
+                    logger.at(Level.INFO).log(String.format("Replaying %d bytes of spooled telemetry", spool.sizeBytes()));
+                }
+                int status = send(record);
+                if (status >= 200 && status < 300) {
+                    replayed++;
+                } else if (status >= 400 && status < 500 && status != 408 && status != 429) {
+                    logger.at(Level.WARNING).log(String.format("Discarding spooled request rejected with HTTP %d", status));
+                } else {
+                    return;
+                }
+                spool.commit(record);
+            }
+            if (replaying) {
+                replaying = false;
+                logger.at(Level.INFO).log("Spooled telemetry replay complete");
+            }
+        } catch (IOException e) {
+            logger.at(Level.FINE).log(String.format("Spool replay paused: %s", e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.at(Level.WARNING).withCause(e).log("Spool replay failed");
+        } finally {
+            if (replayed > 0) {
+                logger.at(Level.FINE).log(String.format("Replayed %d spooled requests", replayed));
+            }
+        }
+    }
+
+    private int send(DiskSpool.Record record) throws IOException, InterruptedException {
+        byte[] body = record.getPayload();
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                        record.getType() == DiskSpool.TYPE_METRICS ? metricsUri : tracesUri)
+                .timeout(timeout)
+                .header("Content-Type", "application/x-protobuf");
+        for (var header : headers.entrySet()) {
+            request.header(header.getKey(), header.getValue());
+        }
+        if (gzip) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2 + 64);
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+                gzipOut.write(body);
+            }
+            body = out.toByteArray();
+            request.header("Content-Encoding", "gzip");
+        }
+        request.POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
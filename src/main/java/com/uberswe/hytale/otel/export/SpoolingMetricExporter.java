@@ -0,0 +1,88 @@
+package com.uberswe.hytale.otel.export;
+
+import io.opentelemetry.exporter.internal.otlp.metrics.MetricsRequestMarshaler;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.export.MemoryMode;
+import io.opentelemetry.sdk.metrics.Aggregation;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Metric exporter that writes batches to a {@link DiskSpool} when the delegate fails.
+ *
+ * While the spool holds unreplayed data, new batches are spooled directly so that
+ * the collector receives them in order once {@link SpoolReplayer} catches up.
+ *
+ * Batches are serialized with the SDK's internal MetricsRequestMarshaler, since there is no
+ * public OTLP encoder. The exporter-otlp-common version is pinned in the build for that reason.
+ */
+public class SpoolingMetricExporter implements MetricExporter {
+    private final MetricExporter delegate;
+    private final DiskSpool spool;
+
+    public SpoolingMetricExporter(MetricExporter delegate, DiskSpool spool) {
+        this.delegate = delegate;
+        this.spool = spool;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<MetricData> metrics) {
+        if (!spool.isEmpty()) {
+            return spool(metrics);
+        }
+        CompletableResultCode result = delegate.export(metrics);
+        CompletableResultCode exported = new CompletableResultCode();
+        result.whenComplete(() -> {
+            if (result.isSuccess() || spool(metrics).isSuccess()) {
+                exported.succeed();
+            } else {
+                exported.fail();
+            }
+        });
+        return exported;
+    }
+
+    private CompletableResultCode spool(Collection<MetricData> metrics) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            MetricsRequestMarshaler.create(metrics).writeBinaryTo(out);
+            return spool.append(DiskSpool.TYPE_METRICS, out.toByteArray())
+                    ? CompletableResultCode.ofSuccess()
+                    : CompletableResultCode.ofFailure();
+        } catch (IOException | RuntimeException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+        return delegate.getAggregationTemporality(instrumentType);
+    }
+
+    @Override
+    public Aggregation getDefaultAggregation(InstrumentType instrumentType) {
+        return delegate.getDefaultAggregation(instrumentType);
+    }
+
+    @Override
+    public MemoryMode getMemoryMode() {
+        // Batches may be serialized after export() returns, so they must not be reused
+        return MemoryMode.IMMUTABLE_DATA;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+}
@@ -0,0 +1,68 @@
+package com.uberswe.hytale.otel.export;
+
+import io.opentelemetry.exporter.internal.otlp.traces.TraceRequestMarshaler;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Span exporter that writes batches to a {@link DiskSpool} when the delegate fails.
+ *
+ * While the spool holds unreplayed data, new batches are spooled directly so that
+ * the collector receives them in order once {@link SpoolReplayer} catches up.
+ *
+ * Spans are encoded with the internal TraceRequestMarshaler, as for metrics in
+ * {@link SpoolingMetricExporter}.
+ */
+public class SpoolingSpanExporter implements SpanExporter {
+    private final SpanExporter delegate;
+    private final DiskSpool spool;
+
+    public SpoolingSpanExporter(SpanExporter delegate, DiskSpool spool) {
+        this.delegate = delegate;
+        this.spool = spool;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        if (!spool.isEmpty()) {
+            return spool(spans);
+        }
+        CompletableResultCode result = delegate.export(spans);
+        CompletableResultCode exported = new CompletableResultCode();
+        result.whenComplete(() -> {
+            if (result.isSuccess() || spool(spans).isSuccess()) {
+                exported.succeed();
+            } else {
+                exported.fail();
+            }
+        });
+        return exported;
+    }
+
+    private CompletableResultCode spool(Collection<SpanData> spans) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            TraceRequestMarshaler.create(spans).writeBinaryTo(out);
+            return spool.append(DiskSpool.TYPE_TRACES, out.toByteArray())
+                    ? CompletableResultCode.ofSuccess()
+                    : CompletableResultCode.ofFailure();
+        } catch (IOException | RuntimeException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+}
@@ -0,0 +1,122 @@
+package com.uberswe.hytale.otel.export;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.export.MemoryMode;
+import io.opentelemetry.sdk.metrics.Aggregation;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Metric exporter that forwards only every Nth batch, stretching the export interval
+ * of a periodic reader without rebuilding it.
+ *
+ * The stride is read on every export, so it can change at runtime. Delta points of
+ * skipped batches are not repeated by later collections and are held until the next
+ * forwarded batch. Gauges and cumulative points are superseded by the next collection;
+ * only those of the latest skipped batch are kept, for a shutdown that comes before the
+ * next forwarded batch.
+ *
+ * {@link #flush()} does not send held data. {@code PeriodicMetricReader.forceFlush()}
+ * flushes the exporter after every collection, and the reader scheduler drives every
+ * scheduled export through it, so sending held data on flush would forward every batch.
+ */
+public class ThrottlingMetricExporter implements MetricExporter {
+    private static final long SHUTDOWN_FLUSH_SECONDS = 10;
+
+    private final MetricExporter delegate;
+    private final IntSupplier stride;
+
+    // Guarded by this
+    private final List<MetricData> heldDeltas = new ArrayList<>();
+    private final List<MetricData> latest = new ArrayList<>();
+    private int skipped;
+
+    public ThrottlingMetricExporter(MetricExporter delegate, IntSupplier stride) {
+        this.delegate = delegate;
+        this.stride = stride;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<MetricData> metrics) {
+        if (skipped + 1 < stride.getAsInt()) {
+            skipped++;
+            latest.clear();
+            for (MetricData metric : metrics) {
+                (isDelta(metric) ? heldDeltas : latest).add(metric);
+            }
+            return CompletableResultCode.ofSuccess();
+        }
+        skipped = 0;
+        latest.clear();
+        if (heldDeltas.isEmpty()) {
+            return delegate.export(metrics);
+        }
+        List<MetricData> batch = new ArrayList<>(heldDeltas.size() + metrics.size());
+        batch.addAll(heldDeltas);
+        batch.addAll(metrics);
+        heldDeltas.clear();
+        return delegate.export(batch);
+    }
+
+    /**
+     * Export whatever skipped batches left behind, on shutdown.
+     */
+    private synchronized CompletableResultCode exportHeld() {
+        if (heldDeltas.isEmpty() && latest.isEmpty()) {
+            return CompletableResultCode.ofSuccess();
+        }
+        List<MetricData> batch = new ArrayList<>(heldDeltas.size() + latest.size());
+        batch.addAll(heldDeltas);
+        batch.addAll(latest);
+        heldDeltas.clear();
+        latest.clear();
+        skipped = 0;
+        return delegate.export(batch);
+    }
+
+    private static boolean isDelta(MetricData metric) {
+        AggregationTemporality temporality = switch (metric.getType()) {
+            case LONG_SUM -> metric.getLongSumData().getAggregationTemporality();
+            case DOUBLE_SUM -> metric.getDoubleSumData().getAggregationTemporality();
+            case HISTOGRAM -> metric.getHistogramData().getAggregationTemporality();
+            case EXPONENTIAL_HISTOGRAM -> metric.getExponentialHistogramData().getAggregationTemporality();
+            default -> null;
+        };
+        return temporality == AggregationTemporality.DELTA;
+    }
+
+    @Override
+    public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+        return delegate.getAggregationTemporality(instrumentType);
+    }
+
+    @Override
+    public Aggregation getDefaultAggregation(InstrumentType instrumentType) {
+        return delegate.getDefaultAggregation(instrumentType);
+    }
+
+    @Override
+    public MemoryMode getMemoryMode() {
+        // Skipped batches are held past the export call, so the reader must not reuse them
+        return MemoryMode.IMMUTABLE_DATA;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        exportHeld().join(SHUTDOWN_FLUSH_SECONDS, TimeUnit.SECONDS);
+        return delegate.shutdown();
+    }
+}
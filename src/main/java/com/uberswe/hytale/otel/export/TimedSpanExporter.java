@@ -0,0 +1,36 @@
+package com.uberswe.hytale.otel.export;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.Collection;
+
+/**
+ * Span exporter that reports the latency and failures of its delegate to an {@link ExportTimer}.
+ */
+public class TimedSpanExporter implements SpanExporter {
+    private final SpanExporter delegate;
+    private final ExportTimer timer;
+
+    public TimedSpanExporter(SpanExporter delegate, ExportTimer timer) {
+        this.delegate = delegate;
+        this.timer = timer;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        long start = System.nanoTime();
+        return timer.track(start, delegate.export(spans));
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+}
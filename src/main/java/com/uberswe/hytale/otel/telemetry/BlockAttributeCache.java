@@ -0,0 +1,271 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interned attribute sets for block metrics, shared by the block ECS systems.
+ *
+ * Attributes are keyed on (world, block type, interaction type, location key) so that
+ * once a combination has been seen the event path is a handful of map lookups and
+ * allocates nothing. The number of cached location sets is capped. Once the cap is
+ * reached, new exact positions are reported by chunk cell instead, and once the chunk
+ * cells reach the same cap, by one overflow cell per block and interaction type. The
+ * key space therefore stays bounded and a full cache keeps returning shared sets
+ * rather than building one per event.
+ *
+ * Location attributes can be switched off at runtime, e.g. by the telemetry
+ * governor; the cache then hands out one attribute set per block and interaction
+ * type, as with spatial aggregation mode "none".
+ */
+public class BlockAttributeCache {
+    public static final AttributeKey<String> BLOCK_TYPE = AttributeKey.stringKey("block.type");
+    public static final AttributeKey<String> INTERACTION_TYPE = AttributeKey.stringKey("interaction.type");
+    public static final String UNKNOWN = "unknown";
+
+    // Cache slots: no interaction attribute, unknown interaction, then interaction ordinal + 2
+    private static final int NO_INTERACTION = 0;
+    private static final int UNKNOWN_INTERACTION = 1;
+
+    private final SpatialBucketer bucketer;
+    private final int maxEntries;
+    private final AtomicInteger entries = new AtomicInteger();
+    private final AtomicInteger cellEntries = new AtomicInteger();
+    private final Map<String, WorldEntry> worlds = new ConcurrentHashMap<>();
+    private volatile boolean locationEnabled = true;
+
+    public BlockAttributeCache(SpatialBucketer bucketer, int maxEntries) {
+        this.bucketer = bucketer;
+        this.maxEntries = Math.max(0, maxEntries);
+    }
+
+    /**
+     * Attributes for a block placement or break.
+     */
+    public Attributes get(String worldName, String blockType, int x, int y, int z) {
+        return get(worldName, blockType, NO_INTERACTION, null, x, y, z);
+    }
+
+    /**
+     * Attributes for a block interaction, with {@link #UNKNOWN} as the interaction type when it is null.
+     */
+    public Attributes get(String worldName, String blockType, Enum<?> interactionType, int x, int y, int z) {
+        if (interactionType == null) {
+            return get(worldName, blockType, UNKNOWN_INTERACTION, UNKNOWN, x, y, z);
+        }
+        return get(worldName, blockType, interactionType.ordinal() + 2, interactionType.name(), x, y, z);
+    }
+
+    private Attributes get(String worldName, String blockType, int slot, String interaction, int x, int y, int z) {
+        String type = blockType != null ? blockType : UNKNOWN;
+        if (!locationEnabled) {
+            return withoutLocation(worldName, type, slot, interaction);
+        }
+        long locationKey = bucketer.locationKey(worldName, x, y, z);
+        Locations locations = typeEntry(worldName, type).forSlot(slot, maxEntries);
+        if (locationKey != SpatialBucketer.UNPACKABLE) {
+            Attributes attributes = locations.exact.get(locationKey);
+            if (attributes != null) {
+                return attributes;
+            }
+            if (reserve(entries)) {
+                attributes = build(worldName, type, interaction, locationKey, x, y, z);
+                Attributes cached = locations.exact.putIfAbsent(locationKey, attributes);
+                if (cached != attributes) {
+                    // Lost a race with another thread or the per-type table is full
+                    entries.decrementAndGet();
+                }
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        }
+        return coarse(worldName, type, slot, interaction, locations, x, z);
+    }
+
+    /**
+     * Attributes for a position that has no room in the location cache.
+     */
+    private Attributes coarse(String worldName, String type, int slot, String interaction, Locations locations,
+                              int x, int z) {
+        switch (bucketer.getMode()) {
+            case NONE -> {
+                return withoutLocation(worldName, type, slot, interaction);
+            }
+            case EXACT -> {
+                long cellKey = bucketer.chunkKey(x, z);
+                Attributes attributes = locations.cells.get(cellKey);
+                if (attributes != null) {
+                    return attributes;
+                }
+                if (reserve(cellEntries)) {
+                    attributes = buildCell(worldName, type, interaction, cellKey);
+                    Attributes cached = locations.cells.putIfAbsent(cellKey, attributes);
+                    if (cached != attributes) {
+                        cellEntries.decrementAndGet();
+                    }
+                    if (cached != null) {
+                        return cached;
+                    }
+                }
+            }
+            default -> {
+                // Chunk and region cells are already as coarse as the configured mode allows
+            }
+        }
+        Attributes overflow = locations.overflow;
+        if (overflow == null) {
+            // Racing threads build equal sets; whichever is stored last is kept
+            overflow = buildCell(worldName, type, interaction, SpatialBucketer.OVERFLOW_CELL);
+            locations.overflow = overflow;
+        }
+        return overflow;
+    }
+
+    private boolean reserve(AtomicInteger counter) {
+        if (counter.incrementAndGet() > maxEntries) {
+            counter.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private Attributes withoutLocation(String worldName, String type, int slot, String interaction) {
+        TypeEntry typeEntry = typeEntry(worldName, type);
+        Attributes[] unlocated = typeEntry.unlocated;
+        if (slot < unlocated.length && unlocated[slot] != null) {
+            return unlocated[slot];
+        }
+        var builder = Attributes.builder().put(BLOCK_TYPE, type);
+        if (interaction != null) {
+            builder.put(INTERACTION_TYPE, interaction);
+        }
+        return typeEntry.putUnlocated(slot, builder.build());
+    }
+
+    /**
+     * Include location attributes in new lookups, or leave them out.
+     */
+    public void setLocationEnabled(boolean locationEnabled) {
+        this.locationEnabled = locationEnabled;
+    }
+
+    /**
+     * Drop cached attributes for a world, e.g. when it is unloaded.
+     */
+    public void clearWorld(String worldName) {
+        if (worldName == null) {
+            return;
+        }
+        WorldEntry removed = worlds.remove(worldName);
+        if (removed != null) {
+            for (TypeEntry typeEntry : removed.types.values()) {
+                for (Locations locations : typeEntry.byInteraction) {
+                    if (locations != null) {
+                        entries.addAndGet(-locations.exact.size());
+                        cellEntries.addAndGet(-locations.cells.size());
+                    }
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return entries.get() + cellEntries.get();
+    }
+
+    private TypeEntry typeEntry(String worldName, String type) {
+        String world = worldName != null ? worldName : "";
+        WorldEntry worldEntry = worlds.get(world);
+        if (worldEntry == null) {
+            worldEntry = worlds.computeIfAbsent(world, w -> new WorldEntry());
+        }
+        TypeEntry typeEntry = worldEntry.types.get(type);
+        if (typeEntry == null) {
+            typeEntry = worldEntry.types.computeIfAbsent(type, t -> new TypeEntry());
+        }
+        return typeEntry;
+    }
+
+    private Attributes build(String worldName, String type, String interaction, long locationKey,
+                             int x, int y, int z) {
+        var builder = Attributes.builder().put(BLOCK_TYPE, type);
+        if (interaction != null) {
+            builder.put(INTERACTION_TYPE, interaction);
+        }
+        bucketer.putLocation(builder, worldName, locationKey, x, y, z);
+        return builder.build();
+    }
+
+    private Attributes buildCell(String worldName, String type, String interaction, long cellKey) {
+        var builder = Attributes.builder().put(BLOCK_TYPE, type);
+        if (interaction != null) {
+            builder.put(INTERACTION_TYPE, interaction);
+        }
+        bucketer.putCell(builder, worldName, cellKey);
+        return builder.build();
+    }
+
+    private static final class WorldEntry {
+        final Map<String, TypeEntry> types = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Location sets for one block and interaction type: exact positions first, then
+     * chunk cells, then a single overflow set.
+     */
+    private static final class Locations {
+        final LongObjectCache<Attributes> exact;
+        final LongObjectCache<Attributes> cells;
+        volatile Attributes overflow;
+
+        Locations(int maxEntries) {
+            this.exact = new LongObjectCache<>(maxEntries);
+            this.cells = new LongObjectCache<>(maxEntries);
+        }
+    }
+
+    /**
+     * Location caches for one block type, indexed by interaction slot.
+     */
+    private static final class TypeEntry {
+        private volatile Locations[] byInteraction = new Locations[1];
+        // Location-free attribute sets, same indexing
+        private volatile Attributes[] unlocated = new Attributes[1];
+
+        Locations forSlot(int slot, int maxEntries) {
+            Locations[] slots = byInteraction;
+            if (slot < slots.length && slots[slot] != null) {
+                return slots[slot];
+            }
+            return create(slot, maxEntries);
+        }
+
+        private synchronized Locations create(int slot, int maxEntries) {
+            Locations[] slots = byInteraction;
+            if (slot < slots.length && slots[slot] != null) {
+                return slots[slot];
+            }
+            Locations[] grown = Arrays.copyOf(slots, Math.max(slots.length, slot + 1));
+            grown[slot] = new Locations(maxEntries);
+            byInteraction = grown;
+            return grown[slot];
+        }
+
+        synchronized Attributes putUnlocated(int slot, Attributes attributes) {
+            Attributes[] slots = unlocated;
+            if (slot < slots.length && slots[slot] != null) {
+                return slots[slot];
+            }
+            Attributes[] grown = Arrays.copyOf(slots, Math.max(slots.length, slot + 1));
+            grown[slot] = attributes;
+            unlocated = grown;
+            return attributes;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.Tracer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Traces block operations with one span per world tick.
+ *
+ * The first block operation in a tick opens a "world.tick.block_ops" span; each
+ * operation is added as a span event until the per-tick cap is reached, after which
+ * operations are only counted. The span is ended with aggregate counts at the next
+ * tick boundary, so span volume follows the tick rate rather than player activity.
+ *
+ * All calls for a world must come from that world's tick thread.
+ */
+public class BlockOperationTracer {
+    public static final int OP_PLACE = 0;
+    public static final int OP_BREAK = 1;
+    public static final int OP_USE = 2;
+
+    private static final String SPAN_NAME = "world.tick.block_ops";
+    private static final String[] EVENT_NAMES = {"block.placed", "block.broken", "block.used"};
+
+    private static final AttributeKey<String> WORLD_NAME = AttributeKey.stringKey("world.name");
+    private static final AttributeKey<Long> PLACED = AttributeKey.longKey("block_ops.placed");
+    private static final AttributeKey<Long> BROKEN = AttributeKey.longKey("block_ops.broken");
+    private static final AttributeKey<Long> USED = AttributeKey.longKey("block_ops.used");
+    private static final AttributeKey<Long> EVENTS_DROPPED = AttributeKey.longKey("block_ops.events_dropped");
+
+    private final Tracer tracer;
+    private final int maxEventsPerTick;
+    private final Map<String, WorldOps> worlds = new ConcurrentHashMap<>();
+
+    public BlockOperationTracer(Tracer tracer, int maxEventsPerTick) {
+        this.tracer = tracer;
+        this.maxEventsPerTick = Math.max(0, maxEventsPerTick);
+    }
+
+    /**
+     * Add a block operation to the current tick's span for the world.
+     */
+    public void record(String worldName, int operation, Attributes attributes) {
+        WorldOps world = world(worldName);
+        if (world.span == null) {
+            world.span = tracer.spanBuilder(SPAN_NAME)
+                    .setSpanKind(SpanKind.INTERNAL)
+                    .setAttribute(WORLD_NAME, world.name)
+                    .startSpan();
+        }
+        world.counts[operation]++;
+        if (world.events < maxEventsPerTick) {
+            world.span.addEvent(EVENT_NAMES[operation], attributes);
+            world.events++;
+        } else {
+            world.dropped++;
+        }
+    }
+
+    /**
+     * End the open span for the world, if any. Called at every tick boundary.
+     */
+    public void onTick(String worldName) {
+        WorldOps world = worlds.get(worldName != null ? worldName : "unknown");
+        if (world != null && world.span != null) {
+            world.end();
+        }
+    }
+
+    /**
+     * End all open spans, e.g. on shutdown.
+     */
+    public void endAll() {
+        for (WorldOps world : worlds.values()) {
+            if (world.span != null) {
+                world.end();
+            }
+        }
+    }
+
+    public void removeWorld(String worldName) {
+        if (worldName != null) {
+            WorldOps world = worlds.remove(worldName);
+            if (world != null && world.span != null) {
+                world.end();
+            }
+        }
+    }
+
+    private WorldOps world(String worldName) {
+        String name = worldName != null ? worldName : "unknown";
+        WorldOps world = worlds.get(name);
+        if (world == null) {
+            world = worlds.computeIfAbsent(name, WorldOps::new);
+        }
+        return world;
+    }
+
+    private static final class WorldOps {
+        final String name;
+        final long[] counts = new long[EVENT_NAMES.length];
+        Span span;
+        int events;
+        long dropped;
+
+        WorldOps(String name) {
+            this.name = name;
+        }
+
+        void end() {
+            span.setAttribute(PLACED, counts[OP_PLACE]);
+            span.setAttribute(BROKEN, counts[OP_BREAK]);
+            span.setAttribute(USED, counts[OP_USE]);
+            if (dropped > 0) {
+                span.setAttribute(EVENTS_DROPPED, dropped);
+            }
+            span.end();
+            span = null;
+            events = 0;
+            dropped = 0;
+            counts[OP_PLACE] = 0;
+            counts[OP_BREAK] = 0;
+            counts[OP_USE] = 0;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongGauge;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts of chunks loaded, generated, saved and unloaded per world, and the number
+ * still loaded.
+ *
+ * There is no latency metric. The server fires one event per chunk operation, after
+ * the chunk has been read, generated or written, and exposes no event at the start of
+ * that work, so chunk I/O and generation time cannot be measured from a listener. All
+ * attribute sets are interned per world.
+ */
+public class ChunkMetrics {
+    public static final int OP_LOAD = 0;
+    public static final int OP_SAVE = 1;
+    public static final int OP_UNLOAD = 2;
+
+    private static final AttributeKey<String> WORLD_NAME = AttributeKey.stringKey("world.name");
+    private static final AttributeKey<String> CHUNK_SOURCE = AttributeKey.stringKey("chunk.source");
+
+    private final Map<String, WorldChunks> worlds = new ConcurrentHashMap<>();
+
+    private final LongCounter chunksLoaded;
+    private final LongCounter chunksSaved;
+    private final LongCounter chunksUnloaded;
+    private final ObservableLongGauge chunksActive;
+
+    public ChunkMetrics(Meter meter) {
+        chunksLoaded = meter.counterBuilder("hytale.world.chunks.loaded")
+                .setDescription("Total number of chunks loaded from disk or generated")
+                .setUnit("{chunks}")
+                .build();
+
+        chunksSaved = meter.counterBuilder("hytale.world.chunks.saved")
+                .setDescription("Total number of chunks saved")
+                .setUnit("{chunks}")
+                .build();
+
+        chunksUnloaded = meter.counterBuilder("hytale.world.chunks.unloaded")
+                .setDescription("Total number of chunks unloaded")
+                .setUnit("{chunks}")
+                .build();
+
+        // Chunks loaded before the plugin started are not known; their unloads are not
+        // allowed to take the count below zero, so later loads are not hidden by them
+        chunksActive = meter.gaugeBuilder("hytale.world.chunks.active")
+                .setDescription("Chunks loaded since the plugin started that are still loaded")
+                .setUnit("{chunks}")
+                .ofLongs()
+                .buildWithCallback(measurement -> {
+                    for (WorldChunks world : worlds.values()) {
+                        measurement.record(world.active.get(), world.worldAttributes);
+                    }
+                });
+    }
+
+    /**
+     * Count a chunk lifecycle event.
+     *
+     * @param generated for loads, whether the chunk was generated rather than read from disk
+     */
+    public void onEvent(int operation, String worldName, boolean generated) {
+        WorldChunks world = world(worldName);
+        switch (operation) {
+            case OP_LOAD -> {
+                chunksLoaded.add(1, generated ? world.generated : world.disk);
+                world.active.incrementAndGet();
+            }
+            case OP_SAVE -> chunksSaved.add(1, world.worldAttributes);
+            case OP_UNLOAD -> {
+                chunksUnloaded.add(1, world.worldAttributes);
+                world.active.updateAndGet(active -> active > 0 ? active - 1 : 0);
+            }
+            default -> {
+            }
+        }
+    }
+
+    public void removeWorld(String worldName) {
+        if (worldName != null) {
+            worlds.remove(worldName);
+        }
+    }
+
+    public void close() {
+        chunksActive.close();
+    }
+
+    private WorldChunks world(String worldName) {
+        String name = worldName != null ? worldName : "unknown";
+        WorldChunks world = worlds.get(name);
+        if (world == null) {
+            world = worlds.computeIfAbsent(name, WorldChunks::new);
+        }
+        return world;
+    }
+
+    private static final class WorldChunks {
+        final Attributes worldAttributes;
+        final Attributes disk;
+        final Attributes generated;
+        final AtomicLong active = new AtomicLong();
+
+        WorldChunks(String worldName) {
+            worldAttributes = Attributes.of(WORLD_NAME, worldName);
+            disk = Attributes.of(WORLD_NAME, worldName, CHUNK_SOURCE, "disk");
+            generated = Attributes.of(WORLD_NAME, worldName, CHUNK_SOURCE, "generated");
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import io.opentelemetry.api.common.Attributes;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated multi-producer, single-consumer ring of telemetry events.
+ *
+ * Producers claim a slot with a CAS on the head sequence, store an event kind and
+ * an interned {@link Attributes} reference, and publish the slot by writing its
+ * sequence number. A dedicated daemon thread drains published slots in batches and
+ * hands runs of identical events to the {@link Sink} as a single count.
+ *
+ * When the ring is full the configured {@link FullPolicy} either drops the new event
+ * or overwrites the oldest unconsumed one. Both cases are counted.
+ */
+public class EventRingBuffer {
+
+    /**
+     * Receives drained events on the consumer thread.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(int kind, Attributes attributes, long count);
+    }
+
+    public enum FullPolicy {
+        DROP,
+        OVERWRITE;
+
+        static FullPolicy parse(String value) {
+            return "overwrite".equalsIgnoreCase(value) ? OVERWRITE : DROP;
+        }
+    }
+
+    // Below every real marker, including the initial ones, so markers only ever grow
+    private static final long IN_PROGRESS = Long.MIN_VALUE;
+
+    private final int capacity;
+    private final int mask;
+    private final FullPolicy policy;
+    private final int batchSize;
+    private final long idleParkNanos;
+    private final Sink sink;
+
+    private final AtomicLongArray sequences;
+    private final int[] kinds;
+    private final AtomicReferenceArray<Attributes> attributes;
+
+    private final AtomicLong head = new AtomicLong();
+    private volatile long tail;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder overwritten = new LongAdder();
+
+    private volatile boolean running;
+    private Thread consumer;
+
+    public EventRingBuffer(int requestedCapacity, FullPolicy policy, int batchSize, long idleParkNanos, Sink sink) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.policy = policy;
+        this.batchSize = Math.max(1, batchSize);
+        this.idleParkNanos = Math.max(1000L, idleParkNanos);
+        this.sink = sink;
+        this.sequences = new AtomicLongArray(capacity);
+        this.kinds = new int[capacity];
+        this.attributes = new AtomicReferenceArray<>(capacity);
+        // Slot i is free for sequence i: its published marker will be i + 1
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i - capacity + 1L);
+        }
+    }
+
+    public static EventRingBuffer create(int capacity, String fullBufferPolicy, int batchSize,
+                                         long drainIntervalMs, Sink sink) {
+        return new EventRingBuffer(capacity, FullPolicy.parse(fullBufferPolicy), batchSize,
+                drainIntervalMs * 1_000_000L, sink);
+    }
+
+    /**
+     * Publish an event from any thread.
+     *
+     * @return false if the event was dropped because the ring was full
+     */
+    public boolean publish(int kind, Attributes eventAttributes) {
+        long sequence;
+        while (true) {
+            sequence = head.get();
+            if (sequence - tail >= capacity && policy == FullPolicy.DROP) {
+                dropped.increment();
+                return false;
+            }
+            if (head.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        int slot = (int) (sequence & mask);
+        long marker = sequence + 1;
+        // Mark the slot so a consumer racing an overwrite discards what it read. Two
+        // producers a lap apart can reach the same slot; only take it from an older
+        // marker so the slow one never moves it backwards
+        while (true) {
+            long current = sequences.get(slot);
+            if (current == IN_PROGRESS) {
+                Thread.onSpinWait();
+            } else if (current >= marker) {
+                // A later lap already owns the slot; the consumer counts this event as overwritten
+                return true;
+            } else if (sequences.compareAndSet(slot, current, IN_PROGRESS)) {
+                break;
+            }
+        }
+        // Keep the field stores below from becoming visible before the slot is marked
+        VarHandle.storeStoreFence();
+        kinds[slot] = kind;
+        attributes.lazySet(slot, eventAttributes);
+        sequences.set(slot, marker);
+        return true;
+    }
+
+    public void start(String threadName) {
+        running = true;
+        consumer = new Thread(this::run, threadName);
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Stop the consumer thread after draining whatever is left in the ring.
+     */
+    public void stop() {
+        running = false;
+        Thread thread = consumer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                return;
+            }
+        }
+        drain(Integer.MAX_VALUE);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (drain(batchSize) == 0) {
+                    LockSupport.parkNanos(this, idleParkNanos);
+                }
+            } catch (RuntimeException e) {
+                // Keep draining; a failing sink must not stall producers on the game threads
+            }
+        }
+    }
+
+    /**
+     * Drain up to maxEvents published events into the sink.
+     *
+     * @return number of slots consumed
+     */
+    int drain(int maxEvents) {
+        long next = tail;
+        int consumed = 0;
+        int runKind = -1;
+        Attributes runAttributes = null;
+        long runCount = 0;
+
+        while (consumed < maxEvents) {
+            int slot = (int) (next & mask);
+            long published = sequences.get(slot);
+            if (published == next + 1) {
+                int kind = kinds[slot];
+                Attributes eventAttributes = attributes.get(slot);
+                // Keep the field loads above from moving past the re-check of the marker
+                VarHandle.loadLoadFence();
+                if (sequences.get(slot) != next + 1) {
+                    // Overwritten while reading; the producer that lapped us owns the slot now
+                    overwritten.increment();
+                } else if (kind == runKind && eventAttributes == runAttributes) {
+                    runCount++;
+                } else {
+                    if (runCount > 0) {
+                        sink.accept(runKind, runAttributes, runCount);
+                    }
+                    runKind = kind;
+                    runAttributes = eventAttributes;
+                    runCount = 1;
+                }
+                next++;
+                consumed++;
+            } else if (published == IN_PROGRESS || published < next + 1) {
+                // Not yet published
+                break;
+            } else {
+                // Producers lapped the consumer: skip to the oldest slot still in the ring
+                long oldest = head.get() - capacity;
+                if (oldest > next) {
+                    overwritten.add(oldest - next);
+                    next = oldest;
+                } else {
+                    next++;
+                    overwritten.increment();
+                }
+            }
+        }
+
+        if (runCount > 0) {
+            sink.accept(runKind, runAttributes, runCount);
+        }
+        tail = next;
+        return consumed;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getOverwritten() {
+        return overwritten.sum();
+    }
+
+    /**
+     * Approximate number of events waiting to be drained.
+     */
+    public long size() {
+        return Math.max(0, Math.min(capacity, head.get() - tail));
+    }
+}
@@ -0,0 +1,158 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableDoubleMeasurement;
+import io.opentelemetry.api.metrics.ObservableMeasurement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Samples selected gauges at a fixed rate between metric exports.
+ *
+ * Each source is read on the shared scheduler into a primitive ring of recent
+ * samples. On collection the samples of the trailing window are reduced to min,
+ * max, avg and last, reported as one gauge with a {@code stat} attribute, so a
+ * spike between two exports still shows up in the max.
+ *
+ * The window trails the collection time instead of being drained by it, so
+ * several metric readers can collect without shortening each other's window.
+ */
+public class GaugeSampler {
+    private static final AttributeKey<String> STAT = AttributeKey.stringKey("stat");
+    private static final Attributes MIN = Attributes.of(STAT, "min");
+    private static final Attributes MAX = Attributes.of(STAT, "max");
+    private static final Attributes AVG = Attributes.of(STAT, "avg");
+    private static final Attributes LAST = Attributes.of(STAT, "last");
+    private static final int MAX_SAMPLES = 4096;
+
+    private final Meter meter;
+    private final long intervalMs;
+    private final long windowNanos;
+    private final int capacity;
+    private final List<Series> series = new ArrayList<>();
+
+    /**
+     * @param intervalMs time between samples
+     * @param windowMs   trailing window the statistics are computed over
+     */
+    public GaugeSampler(Meter meter, long intervalMs, long windowMs) {
+        this.meter = meter;
+        this.intervalMs = Math.max(10, intervalMs);
+        long window = Math.max(this.intervalMs, windowMs);
+        this.windowNanos = window * 1_000_000L;
+        // One full window plus the sample that straddles its start
+        this.capacity = (int) Math.min(MAX_SAMPLES, window / this.intervalMs + 2);
+    }
+
+    /**
+     * Add a sampled gauge. Must be called before {@link #start}.
+     *
+     * @param scale factor applied to the raw samples when reporting, e.g. 1e-9 for nanoseconds to seconds
+     */
+    public void add(String name, String description, String unit, double scale, LongSupplier source) {
+        ObservableDoubleMeasurement observer = meter.gaugeBuilder(name)
+                .setDescription(description)
+                .setUnit(unit)
+                .buildObserver();
+        series.add(new Series(observer, scale, source, capacity));
+    }
+
+    /**
+     * Register the collection callback and start sampling on the scheduler.
+     */
+    public void start(ScheduledExecutorService scheduler) {
+        if (series.isEmpty()) {
+            return;
+        }
+        ObservableMeasurement[] rest = new ObservableMeasurement[series.size() - 1];
+        for (int i = 1; i < series.size(); i++) {
+            rest[i - 1] = series.get(i).observer;
+        }
+        meter.batchCallback(this::report, series.get(0).observer, rest);
+        scheduler.scheduleAtFixedRate(this::sample, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void sample() {
+        long now = System.nanoTime();
+        for (Series s : series) {
+            try {
+                s.add(now, s.source.getAsLong());
+            } catch (RuntimeException e) {
+                // Skip this sample; an exception would cancel the scheduled task
+            }
+        }
+    }
+
+    private void report() {
+        long since = System.nanoTime() - windowNanos;
+        for (Series s : series) {
+            s.report(since);
+        }
+    }
+
+    private static final class Series {
+        final ObservableDoubleMeasurement observer;
+        final double scale;
+        final LongSupplier source;
+        final long[] times;
+        final long[] values;
+        int next;
+        int count;
+
+        Series(ObservableDoubleMeasurement observer, double scale, LongSupplier source, int capacity) {
+            this.observer = observer;
+            this.scale = scale;
+            this.source = source;
+            this.times = new long[capacity];
+            this.values = new long[capacity];
+        }
+
+        synchronized void add(long time, long value) {
+            times[next] = time;
+            values[next] = value;
+            next = next + 1 == times.length ? 0 : next + 1;
+            if (count < times.length) {
+                count++;
+            }
+        }
+
+        /**
+         * Report statistics of the samples taken at or after {@code since}, newest first.
+         */
+        synchronized void report(long since) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            long last = 0;
+            double sum = 0;
+            int n = 0;
+            int index = next;
+            for (int i = 0; i < count; i++) {
+                index = index == 0 ? times.length - 1 : index - 1;
+                if (times[index] - since < 0) {
+                    break;
+                }
+                long value = values[index];
+                if (n == 0) {
+                    last = value;
+                }
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                sum += value;
+                n++;
+            }
+            if (n == 0) {
+                return;
+            }
+            observer.record(min * scale, MIN);
+            observer.record(max * scale, MAX);
+            observer.record(sum / n * scale, AVG);
+            observer.record(last * scale, LAST);
+        }
+    }
+}
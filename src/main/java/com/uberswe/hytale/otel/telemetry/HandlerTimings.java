@@ -0,0 +1,98 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time spent in the plugin's own event handlers and ECS systems.
+ *
+ * Each handler adds its elapsed nanoseconds and a call to striped counters; both
+ * are reported per handler on collection. Recording is two {@link System#nanoTime}
+ * calls and two uncontended adds, cheap enough to stay on permanently.
+ */
+public class HandlerTimings {
+    public static final int BLOCK_PLACE = 0;
+    public static final int BLOCK_BREAK = 1;
+    public static final int BLOCK_USE = 2;
+    public static final int WORLD_TICK = 3;
+    public static final int PLAYER_CONNECT = 4;
+    public static final int PLAYER_DISCONNECT = 5;
+    public static final int PLAYER_READY = 6;
+    public static final int WORLD_ADD = 7;
+    public static final int WORLD_REMOVE = 8;
+    public static final int CHUNK_LOAD = 9;
+    public static final int CHUNK_SAVE = 10;
+    public static final int CHUNK_UNLOAD = 11;
+    public static final int SERVER_BOOT = 12;
+    public static final int SERVER_SHUTDOWN = 13;
+
+    private static final String[] NAMES = {
+            "block.place", "block.break", "block.use", "world.tick",
+            "player.connect", "player.disconnect", "player.ready",
+            "world.add", "world.remove",
+            "chunk.load", "chunk.save", "chunk.unload",
+            "server.boot", "server.shutdown"
+    };
+    private static final AttributeKey<String> HANDLER = AttributeKey.stringKey("handler");
+
+    private final LongAdder[] nanos = new LongAdder[NAMES.length];
+    private final LongAdder[] calls = new LongAdder[NAMES.length];
+    private final Attributes[] attributes = new Attributes[NAMES.length];
+
+    /**
+     * @param meter meter to report the timings through, or null to only accumulate them
+     */
+    public HandlerTimings(Meter meter) {
+        for (int i = 0; i < NAMES.length; i++) {
+            nanos[i] = new LongAdder();
+            calls[i] = new LongAdder();
+            attributes[i] = Attributes.of(HANDLER, NAMES[i]);
+        }
+        if (meter == null) {
+            return;
+        }
+
+        ObservableLongMeasurement time = meter.counterBuilder("hotel_c.self.handler.time")
+                .setDescription("Time spent in plugin event handlers and ECS systems")
+                .setUnit("ns")
+                .buildObserver();
+        ObservableLongMeasurement count = meter.counterBuilder("hotel_c.self.handler.calls")
+                .setDescription("Plugin event handler and ECS system invocations")
+                .setUnit("{calls}")
+                .buildObserver();
+        meter.batchCallback(() -> {
+            for (int i = 0; i < NAMES.length; i++) {
+                long handlerCalls = calls[i].sum();
+                if (handlerCalls > 0) {
+                    time.record(nanos[i].sum(), attributes[i]);
+                    count.record(handlerCalls, attributes[i]);
+                }
+            }
+        }, time, count);
+    }
+
+    /**
+     * Record one call of a handler.
+     *
+     * @param startNanos {@link System#nanoTime} taken when the handler was entered
+     */
+    public void record(int handler, long startNanos) {
+        nanos[handler].add(System.nanoTime() - startNanos);
+        calls[handler].increment();
+    }
+
+    /**
+     * Nanoseconds spent in all handlers so far.
+     */
+    public long getTotalNanos() {
+        long total = 0;
+        for (LongAdder handlerNanos : nanos) {
+            total += handlerNanos.sum();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,215 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import com.uberswe.hytale.otel.config.PluginConfig;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableDoubleMeasurement;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams a small set of JDK Flight Recorder events in-process and turns them into metrics.
+ *
+ * Monitor contention, thread parking, safepoints, GC pause phases and file and socket
+ * I/O are enabled with duration thresholds, so only slow events reach the stream.
+ * Durations are recorded into histograms on the stream's own thread. Contended
+ * monitor classes are tallied locally and only the top N by total wait time are
+ * exported, keeping the class attribute bounded.
+ *
+ * Most long parks are idle pool threads waiting for work, so only untimed parks on a
+ * lock synchronizer (the Sync of ReentrantLock, ReentrantReadWriteLock, Semaphore and
+ * the like, or a StampedLock) count as thread park stalls. Queue and condition waits,
+ * idle ForkJoinPool workers and timed parks are dropped.
+ */
+public class JfrBridge {
+    public static final String MONITOR_WAIT = "hytale.server.jfr.monitor.wait";
+    public static final String THREAD_PARK = "hytale.server.jfr.thread.park";
+    public static final String SAFEPOINT = "hytale.server.jfr.safepoint";
+    public static final String GC_PAUSE = "hytale.server.jfr.gc.pause";
+    public static final String IO_DURATION = "hytale.server.jfr.io.duration";
+    public static final List<String> HISTOGRAMS = List.of(MONITOR_WAIT, THREAD_PARK, SAFEPOINT, GC_PAUSE, IO_DURATION);
+
+    private static final AttributeKey<String> IO_OPERATION = AttributeKey.stringKey("io.operation");
+    private static final AttributeKey<String> MONITOR_CLASS = AttributeKey.stringKey("monitor.class");
+    private static final Attributes FILE_READ = Attributes.of(IO_OPERATION, "file.read");
+    private static final Attributes FILE_WRITE = Attributes.of(IO_OPERATION, "file.write");
+    private static final Attributes SOCKET_READ = Attributes.of(IO_OPERATION, "socket.read");
+    private static final Attributes SOCKET_WRITE = Attributes.of(IO_OPERATION, "socket.write");
+    private static final String OTHER_CLASS = "other";
+    // Timeout and deadline of a park without either
+    private static final long NO_TIMEOUT = Long.MIN_VALUE;
+    private static final int MAX_TRACKED_CLASSES = 1024;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final PluginConfig.JfrConfig jfrConfig;
+    private final DoubleHistogram monitorWait;
+    private final DoubleHistogram threadPark;
+    private final DoubleHistogram safepoint;
+    private final DoubleHistogram gcPause;
+    private final DoubleHistogram ioDuration;
+
+    // Contended monitor classes; written by the stream thread, read on collection
+    private final Map<String, Contention> contention = new HashMap<>();
+    private final List<Contention> ranking = new ArrayList<>();
+
+    private RecordingStream stream;
+
+    public JfrBridge(Meter meter, PluginConfig.JfrConfig jfrConfig) {
+        this.jfrConfig = jfrConfig;
+
+        monitorWait = meter.histogramBuilder(MONITOR_WAIT)
+                .setDescription("Time threads blocked entering a contended monitor")
+                .setUnit("s")
+                .build();
+        threadPark = meter.histogramBuilder(THREAD_PARK)
+                .setDescription("Time threads spent parked waiting to acquire a lock")
+                .setUnit("s")
+                .build();
+        safepoint = meter.histogramBuilder(SAFEPOINT)
+                .setDescription("Duration of safepoints")
+                .setUnit("s")
+                .build();
+        gcPause = meter.histogramBuilder(GC_PAUSE)
+                .setDescription("Duration of stop-the-world GC pause phases")
+                .setUnit("s")
+                .build();
+        ioDuration = meter.histogramBuilder(IO_DURATION)
+                .setDescription("Duration of slow file and socket reads and writes, by io.operation")
+                .setUnit("s")
+                .build();
+
+        ObservableDoubleMeasurement contendedTime = meter.counterBuilder("hytale.server.jfr.monitor.contended.time")
+                .ofDoubles()
+                .setDescription("Total time blocked on the most contended monitor classes")
+                .setUnit("s")
+                .buildObserver();
+        ObservableLongMeasurement contendedCount = meter.counterBuilder("hytale.server.jfr.monitor.contended.count")
+                .setDescription("Contended monitor entries on the most contended monitor classes")
+                .setUnit("{events}")
+                .buildObserver();
+        meter.batchCallback(() -> reportContention(contendedTime, contendedCount), contendedTime, contendedCount);
+    }
+
+    /**
+     * Start the recording stream.
+     *
+     * @return false if Flight Recorder is not available in this JVM
+     */
+    public boolean start() {
+        if (!FlightRecorder.isAvailable()) {
+            return false;
+        }
+        stream = new RecordingStream();
+        stream.setReuse(true);
+        stream.setOrdered(false);
+        // Events are consumed as they arrive, so the disk repository only needs a short backlog
+        stream.setMaxAge(Duration.ofSeconds(30));
+
+        Duration monitorThreshold = Duration.ofMillis(jfrConfig.getMonitorThresholdMs());
+        Duration parkThreshold = Duration.ofMillis(jfrConfig.getParkThresholdMs());
+        Duration ioThreshold = Duration.ofMillis(jfrConfig.getIoThresholdMs());
+
+        stream.enable("jdk.JavaMonitorEnter").withThreshold(monitorThreshold).withoutStackTrace();
+        stream.enable("jdk.ThreadPark").withThreshold(parkThreshold).withoutStackTrace();
+        stream.enable("jdk.SafepointBegin").withThreshold(Duration.ofMillis(jfrConfig.getSafepointThresholdMs()));
+        stream.enable("jdk.GCPhasePause").withThreshold(Duration.ZERO);
+        stream.enable("jdk.FileRead").withThreshold(ioThreshold).withoutStackTrace();
+        stream.enable("jdk.FileWrite").withThreshold(ioThreshold).withoutStackTrace();
+        stream.enable("jdk.SocketRead").withThreshold(ioThreshold).withoutStackTrace();
+        stream.enable("jdk.SocketWrite").withThreshold(ioThreshold).withoutStackTrace();
+
+        stream.onEvent("jdk.JavaMonitorEnter", this::onMonitorEnter);
+        stream.onEvent("jdk.ThreadPark", this::onThreadPark);
+        stream.onEvent("jdk.SafepointBegin", event -> safepoint.record(seconds(event)));
+        stream.onEvent("jdk.GCPhasePause", event -> gcPause.record(seconds(event)));
+        stream.onEvent("jdk.FileRead", event -> ioDuration.record(seconds(event), FILE_READ));
+        stream.onEvent("jdk.FileWrite", event -> ioDuration.record(seconds(event), FILE_WRITE));
+        stream.onEvent("jdk.SocketRead", event -> ioDuration.record(seconds(event), SOCKET_READ));
+        stream.onEvent("jdk.SocketWrite", event -> ioDuration.record(seconds(event), SOCKET_WRITE));
+
+        stream.startAsync();
+        return true;
+    }
+
+    private void onMonitorEnter(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        monitorWait.record(nanos / NANOS_PER_SECOND);
+
+        RecordedClass monitorClass = event.getClass("monitorClass");
+        String className = monitorClass != null ? monitorClass.getName() : OTHER_CLASS;
+        synchronized (contention) {
+            Contention entry = contention.get(className);
+            if (entry == null) {
+                // Past the cap, new classes are folded together so the map stays bounded
+                String key = contention.size() < MAX_TRACKED_CLASSES ? className : OTHER_CLASS;
+                entry = contention.computeIfAbsent(key, Contention::new);
+            }
+            entry.nanos += nanos;
+            entry.count++;
+        }
+    }
+
+    private void onThreadPark(RecordedEvent event) {
+        if (event.getLong("timeout") != NO_TIMEOUT || event.getLong("until") != NO_TIMEOUT) {
+            return;
+        }
+        RecordedClass parkedClass = event.getClass("parkedClass");
+        if (parkedClass != null && isLockSynchronizer(parkedClass.getName())) {
+            threadPark.record(seconds(event));
+        }
+    }
+
+    /**
+     * Whether a park blocker is a lock. Queue waits park on a ConditionObject or the
+     * queue itself, idle ForkJoinPool workers on the pool.
+     */
+    private static boolean isLockSynchronizer(String className) {
+        return className.endsWith("$Sync") || className.endsWith("$FairSync") || className.endsWith("$NonfairSync")
+                || className.equals("java.util.concurrent.locks.StampedLock");
+    }
+
+    private void reportContention(ObservableDoubleMeasurement contendedTime, ObservableLongMeasurement contendedCount) {
+        int topN = jfrConfig.getTopContendedClasses();
+        synchronized (contention) {
+            ranking.clear();
+            ranking.addAll(contention.values());
+            ranking.sort((a, b) -> Long.compare(b.nanos, a.nanos));
+            for (int i = 0; i < ranking.size() && i < topN; i++) {
+                Contention entry = ranking.get(i);
+                contendedTime.record(entry.nanos / NANOS_PER_SECOND, entry.attributes);
+                contendedCount.record(entry.count, entry.attributes);
+            }
+        }
+    }
+
+    private static double seconds(RecordedEvent event) {
+        return event.getDuration().toNanos() / NANOS_PER_SECOND;
+    }
+
+    public void close() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private static final class Contention {
+        final Attributes attributes;
+        long nanos;
+        long count;
+
+        Contention(String className) {
+            this.attributes = Attributes.of(MONITOR_CLASS, className);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.Meter;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time from player connect to player ready, per world.
+ *
+ * Pending joins are kept in an open-addressing table of primitive arrays keyed on the
+ * two halves of the player UUID, so a login storm costs a few array writes per player
+ * and no per-join objects. Entries leave the table when the player becomes ready or
+ * disconnects. The table grows up to a fixed number of pending joins; connects beyond
+ * that are not timed.
+ */
+public class JoinLatencyTracker {
+    public static final String JOIN_DURATION = "hytale.players.join.duration";
+
+    private static final AttributeKey<String> WORLD_NAME = AttributeKey.stringKey("world.name");
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_PENDING = 8192;
+
+    private final DoubleHistogram joinDuration;
+    private final Map<String, Attributes> worldAttributes = new ConcurrentHashMap<>();
+
+    // Guarded by this; a start time of 0 marks a free slot
+    private long[] mostSignificant = new long[INITIAL_CAPACITY];
+    private long[] leastSignificant = new long[INITIAL_CAPACITY];
+    private long[] startNanos = new long[INITIAL_CAPACITY];
+    private int size;
+
+    public JoinLatencyTracker(Meter meter) {
+        joinDuration = meter.histogramBuilder(JOIN_DURATION)
+                .setDescription("Time from player connect to player ready, by world")
+                .setUnit("s")
+                .build();
+    }
+
+    /**
+     * Start timing a join. A player that is already pending keeps its original start.
+     */
+    public synchronized void onConnect(UUID playerUuid, long nowNanos) {
+        long msb = playerUuid.getMostSignificantBits();
+        long lsb = playerUuid.getLeastSignificantBits();
+        if (find(msb, lsb) >= 0 || size >= MAX_PENDING) {
+            return;
+        }
+        if ((size + 1) * 2 > startNanos.length) {
+            resize(startNanos.length * 2);
+        }
+        insert(msb, lsb, nowNanos != 0 ? nowNanos : 1);
+        size++;
+    }
+
+    /**
+     * Record the join duration if the player has a pending join. Later ready events of
+     * the same session, e.g. after a world change, are ignored.
+     */
+    public void onReady(UUID playerUuid, String worldName, long nowNanos) {
+        long started = remove(playerUuid);
+        if (started == 0) {
+            return;
+        }
+        String world = worldName != null ? worldName : "unknown";
+        Attributes attributes = worldAttributes.get(world);
+        if (attributes == null) {
+            attributes = worldAttributes.computeIfAbsent(world, w -> Attributes.of(WORLD_NAME, w));
+        }
+        joinDuration.record((nowNanos - started) / NANOS_PER_SECOND, attributes);
+    }
+
+    /**
+     * Forget a pending join, e.g. when the player disconnects before becoming ready.
+     */
+    public void onDisconnect(UUID playerUuid) {
+        remove(playerUuid);
+    }
+
+    public void removeWorld(String worldName) {
+        if (worldName != null) {
+            worldAttributes.remove(worldName);
+        }
+    }
+
+    public synchronized int pending() {
+        return size;
+    }
+
+    /**
+     * @return the start time of the removed join, or 0 if none was pending
+     */
+    private synchronized long remove(UUID playerUuid) {
+        int slot = find(playerUuid.getMostSignificantBits(), playerUuid.getLeastSignificantBits());
+        if (slot < 0) {
+            return 0;
+        }
+        long started = startNanos[slot];
+        startNanos[slot] = 0;
+        size--;
+
+        // Shift later entries of the probe run back so lookups do not stop at the hole
+        int mask = startNanos.length - 1;
+        int hole = slot;
+        for (int i = (slot + 1) & mask; startNanos[i] != 0; i = (i + 1) & mask) {
+            int home = hash(mostSignificant[i], leastSignificant[i]) & mask;
+            // Move the entry if its home slot is not between the hole and its current slot
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                mostSignificant[hole] = mostSignificant[i];
+                leastSignificant[hole] = leastSignificant[i];
+                startNanos[hole] = startNanos[i];
+                startNanos[i] = 0;
+                hole = i;
+            }
+        }
+        return started;
+    }
+
+    private int find(long msb, long lsb) {
+        int mask = startNanos.length - 1;
+        for (int i = hash(msb, lsb) & mask; startNanos[i] != 0; i = (i + 1) & mask) {
+            if (mostSignificant[i] == msb && leastSignificant[i] == lsb) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long msb, long lsb, long started) {
+        int mask = startNanos.length - 1;
+        int i = hash(msb, lsb) & mask;
+        while (startNanos[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        mostSignificant[i] = msb;
+        leastSignificant[i] = lsb;
+        startNanos[i] = started;
+    }
+
+    private void resize(int capacity) {
+        long[] oldMost = mostSignificant;
+        long[] oldLeast = leastSignificant;
+        long[] oldStart = startNanos;
+        mostSignificant = new long[capacity];
+        leastSignificant = new long[capacity];
+        startNanos = new long[capacity];
+        for (int i = 0; i < oldStart.length; i++) {
+            if (oldStart[i] != 0) {
+                insert(oldMost[i], oldLeast[i], oldStart[i]);
+            }
+        }
+    }
+
+    private static int hash(long msb, long lsb) {
+        return LongObjectCache.mix(msb ^ Long.rotateLeft(lsb, 32));
+    }
+}
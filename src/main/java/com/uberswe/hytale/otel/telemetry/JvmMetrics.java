@@ -0,0 +1,282 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.uberswe.hytale.otel.config.PluginConfig;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JVM memory pool, garbage collection, buffer pool, thread and allocation metrics
+ * read from the platform MXBeans.
+ *
+ * Pool, buffer and thread gauges are read on collection. GC durations are recorded
+ * from GC notifications as they happen. Allocated bytes are derived from the same
+ * notifications: the growth of the young (or only) heap pool between collections,
+ * plus its growth since the last collection, which keeps the counter monotonic
+ * without per-thread allocation accounting.
+ */
+public class JvmMetrics {
+    public static final String GC_DURATION = "hytale.server.jvm.gc.duration";
+
+    private static final AttributeKey<String> POOL_NAME = AttributeKey.stringKey("jvm.memory.pool.name");
+    private static final AttributeKey<String> MEMORY_TYPE = AttributeKey.stringKey("jvm.memory.type");
+    private static final AttributeKey<String> GC_NAME = AttributeKey.stringKey("jvm.gc.name");
+    private static final AttributeKey<String> GC_ACTION = AttributeKey.stringKey("jvm.gc.action");
+    private static final AttributeKey<String> GC_CAUSE = AttributeKey.stringKey("jvm.gc.cause");
+    private static final AttributeKey<String> BUFFER_POOL_NAME = AttributeKey.stringKey("jvm.buffer.pool.name");
+    private static final AttributeKey<Boolean> THREAD_DAEMON = AttributeKey.booleanKey("jvm.thread.daemon");
+    private static final Attributes DAEMON = Attributes.of(THREAD_DAEMON, true);
+    private static final Attributes NON_DAEMON = Attributes.of(THREAD_DAEMON, false);
+    private static final double MILLIS_PER_SECOND = 1000.0;
+
+    private final List<AutoCloseable> instruments = new ArrayList<>();
+    private final List<NotificationEmitter> gcEmitters = new ArrayList<>();
+    private final NotificationListener gcListener = this::onGcNotification;
+    private DoubleHistogram gcDuration;
+
+    // Young (or only) heap pool that allocations land in, null if it cannot be identified
+    private String allocationPool;
+    private MemoryPoolMXBean allocationPoolBean;
+    private volatile long allocatedBeforeLastGc;
+    private volatile long allocationPoolAfterLastGc;
+
+    public JvmMetrics(Meter meter, PluginConfig.ServerMetricsConfig serverConfig) {
+        if (serverConfig.isTrackMemoryPools()) {
+            registerMemoryPools(meter);
+        }
+        if (serverConfig.isTrackGc()) {
+            registerGc(meter);
+        }
+        if (serverConfig.isTrackBufferPools()) {
+            registerBufferPools(meter);
+        }
+        if (serverConfig.isTrackThreads()) {
+            registerThreads(meter);
+        }
+        if (serverConfig.isTrackAllocation()) {
+            registerAllocation(meter);
+        }
+        if (gcDuration != null || allocationPool != null) {
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (collector instanceof NotificationEmitter emitter) {
+                    emitter.addNotificationListener(gcListener, null, null);
+                    gcEmitters.add(emitter);
+                }
+            }
+        }
+    }
+
+    private void registerMemoryPools(Meter meter) {
+        List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans();
+        List<Attributes> poolAttributes = new ArrayList<>(pools.size());
+        for (MemoryPoolMXBean pool : pools) {
+            poolAttributes.add(Attributes.of(POOL_NAME, pool.getName(),
+                    MEMORY_TYPE, pool.getType() == MemoryType.HEAP ? "heap" : "non_heap"));
+        }
+
+        instruments.add(meter.upDownCounterBuilder("hytale.server.jvm.memory.used")
+                .setDescription("Memory used per JVM memory pool")
+                .setUnit("By")
+                .buildWithCallback(measurement -> recordPools(pools, poolAttributes, measurement, Usage.USED)));
+        instruments.add(meter.upDownCounterBuilder("hytale.server.jvm.memory.committed")
+                .setDescription("Memory committed per JVM memory pool")
+                .setUnit("By")
+                .buildWithCallback(measurement -> recordPools(pools, poolAttributes, measurement, Usage.COMMITTED)));
+        instruments.add(meter.upDownCounterBuilder("hytale.server.jvm.memory.limit")
+                .setDescription("Maximum memory per JVM memory pool, if defined")
+                .setUnit("By")
+                .buildWithCallback(measurement -> recordPools(pools, poolAttributes, measurement, Usage.LIMIT)));
+        instruments.add(meter.upDownCounterBuilder("hytale.server.jvm.memory.used_after_last_gc")
+                .setDescription("Memory used per JVM memory pool after the last collection of that pool")
+                .setUnit("By")
+                .buildWithCallback(measurement -> recordPools(pools, poolAttributes, measurement, Usage.AFTER_GC)));
+    }
+
+    private enum Usage { USED, COMMITTED, LIMIT, AFTER_GC }
+
+    private static void recordPools(List<MemoryPoolMXBean> pools, List<Attributes> poolAttributes,
+                                    ObservableLongMeasurement measurement, Usage kind) {
+        for (int i = 0; i < pools.size(); i++) {
+            MemoryPoolMXBean pool = pools.get(i);
+            if (!pool.isValid()) {
+                continue;
+            }
+            MemoryUsage usage = kind == Usage.AFTER_GC ? pool.getCollectionUsage() : pool.getUsage();
+            if (usage == null) {
+                continue;
+            }
+            long value = switch (kind) {
+                case USED, AFTER_GC -> usage.getUsed();
+                case COMMITTED -> usage.getCommitted();
+                case LIMIT -> usage.getMax();
+            };
+            if (value >= 0) {
+                measurement.record(value, poolAttributes.get(i));
+            }
+        }
+    }
+
+    private void registerGc(Meter meter) {
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        List<Attributes> collectorAttributes = new ArrayList<>(collectors.size());
+        for (GarbageCollectorMXBean collector : collectors) {
+            collectorAttributes.add(Attributes.of(GC_NAME, collector.getName()));
+        }
+
+        instruments.add(meter.counterBuilder("hytale.server.jvm.gc.count")
+                .setDescription("Number of garbage collections per collector")
+                .setUnit("{collections}")
+                .buildWithCallback(measurement -> {
+                    for (int i = 0; i < collectors.size(); i++) {
+                        long count = collectors.get(i).getCollectionCount();
+                        if (count >= 0) {
+                            measurement.record(count, collectorAttributes.get(i));
+                        }
+                    }
+                }));
+
+        gcDuration = meter.histogramBuilder(GC_DURATION)
+                .setDescription("Duration of garbage collections, by collector, action and cause")
+                .setUnit("s")
+                .build();
+    }
+
+    private void registerBufferPools(Meter meter) {
+        List<BufferPoolMXBean> pools = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class);
+        List<Attributes> poolAttributes = new ArrayList<>(pools.size());
+        for (BufferPoolMXBean pool : pools) {
+            poolAttributes.add(Attributes.of(BUFFER_POOL_NAME, pool.getName()));
+        }
+
+        instruments.add(meter.upDownCounterBuilder("hytale.server.jvm.buffer.memory.used")
+                .setDescription("Memory used by direct and mapped buffers")
+                .setUnit("By")
+                .buildWithCallback(measurement -> {
+                    for (int i = 0; i < pools.size(); i++) {
+                        measurement.record(pools.get(i).getMemoryUsed(), poolAttributes.get(i));
+                    }
+                }));
+        instruments.add(meter.upDownCounterBuilder("hytale.server.jvm.buffer.memory.limit")
+                .setDescription("Total capacity of direct and mapped buffers")
+                .setUnit("By")
+                .buildWithCallback(measurement -> {
+                    for (int i = 0; i < pools.size(); i++) {
+                        measurement.record(pools.get(i).getTotalCapacity(), poolAttributes.get(i));
+                    }
+                }));
+        instruments.add(meter.upDownCounterBuilder("hytale.server.jvm.buffer.count")
+                .setDescription("Number of direct and mapped buffers")
+                .setUnit("{buffers}")
+                .buildWithCallback(measurement -> {
+                    for (int i = 0; i < pools.size(); i++) {
+                        measurement.record(pools.get(i).getCount(), poolAttributes.get(i));
+                    }
+                }));
+    }
+
+    private void registerThreads(Meter meter) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        instruments.add(meter.upDownCounterBuilder("hytale.server.jvm.thread.count")
+                .setDescription("Live JVM threads, by daemon status")
+                .setUnit("{threads}")
+                .buildWithCallback(measurement -> {
+                    int total = threads.getThreadCount();
+                    int daemon = threads.getDaemonThreadCount();
+                    measurement.record(daemon, DAEMON);
+                    measurement.record(Math.max(0, total - daemon), NON_DAEMON);
+                }));
+    }
+
+    private void registerAllocation(Meter meter) {
+        MemoryPoolMXBean onlyHeapPool = null;
+        int heapPools = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) {
+                continue;
+            }
+            heapPools++;
+            onlyHeapPool = pool;
+            String name = pool.getName();
+            if (name.endsWith("Eden Space") || name.endsWith("Young Generation")) {
+                allocationPoolBean = pool;
+            }
+        }
+        if (allocationPoolBean == null && heapPools == 1) {
+            allocationPoolBean = onlyHeapPool;
+        }
+        if (allocationPoolBean == null) {
+            return;
+        }
+        allocationPool = allocationPoolBean.getName();
+
+        instruments.add(meter.counterBuilder("hytale.server.jvm.memory.allocated")
+                .setDescription("Heap memory allocated since the server started")
+                .setUnit("By")
+                .buildWithCallback(measurement -> {
+                    long sinceLastGc = allocationPoolBean.getUsage().getUsed() - allocationPoolAfterLastGc;
+                    measurement.record(allocatedBeforeLastGc + Math.max(0, sinceLastGc));
+                }));
+    }
+
+    private void onGcNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+
+        if (gcDuration != null) {
+            gcDuration.record(info.getGcInfo().getDuration() / MILLIS_PER_SECOND, Attributes.of(
+                    GC_NAME, info.getGcName(),
+                    GC_ACTION, info.getGcAction(),
+                    GC_CAUSE, info.getGcCause()));
+        }
+
+        if (allocationPool != null) {
+            MemoryUsage before = info.getGcInfo().getMemoryUsageBeforeGc().get(allocationPool);
+            MemoryUsage after = info.getGcInfo().getMemoryUsageAfterGc().get(allocationPool);
+            if (before != null && after != null) {
+                // Notifications are delivered on a single JMX thread
+                allocatedBeforeLastGc += Math.max(0, before.getUsed() - allocationPoolAfterLastGc);
+                allocationPoolAfterLastGc = after.getUsed();
+            }
+        }
+    }
+
+    public void close() {
+        for (NotificationEmitter emitter : gcEmitters) {
+            try {
+                emitter.removeNotificationListener(gcListener);
+            } catch (ListenerNotFoundException e) {
+                // Already removed
+            }
+        }
+        gcEmitters.clear();
+        for (AutoCloseable instrument : instruments) {
+            try {
+                instrument.close();
+            } catch (Exception e) {
+                // Closing an observable instrument only unregisters its callback
+            }
+        }
+        instruments.clear();
+    }
+}
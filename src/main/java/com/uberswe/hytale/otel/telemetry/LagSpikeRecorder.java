@@ -0,0 +1,450 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.uberswe.hytale.otel.config.PluginConfig;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+
+/**
+ * Flight recorder for lag spikes: keeps the last few seconds of gameplay events and
+ * tick timings, and dumps them when a tick runs longer than the threshold.
+ *
+ * Events are written into preallocated parallel arrays as a kind, a world index and
+ * two long payload fields, so recording allocates nothing. Writers claim a slot with
+ * an atomic increment and publish it by storing its sequence number, which lets the
+ * dump skip slots that were being overwritten while it read them.
+ *
+ * A spike is seen when the long tick ends. The tick thread only captures the current
+ * span context and hands the dump to the shared scheduler, which copies the window and
+ * writes a spike file plus a "lag.spike" span. By then the tick thread has moved on,
+ * so a watchdog on the same scheduler checks the running ticks every half threshold
+ * and takes the thread dump while a tick is still over the threshold. The dump of a
+ * tick that ended before the watchdog saw it is taken when the spike is written.
+ *
+ * Spike file layout (big-endian, strings as modified UTF-8):
+ * <pre>
+ * int magic "HCLS", short version
+ * long trigger epoch millis, long tick duration nanos, UTF world
+ * UTF trace id, UTF span id (empty if there was no span)
+ * short world count, UTF world name per world index
+ * int event count, per event oldest first:
+ *     long nanos before trigger, byte kind, short world index, long a, long b
+ * long nanos before trigger the thread dump was taken (negative if taken after)
+ * int thread count, per thread:
+ *     long id, UTF name, UTF state, short frame count, UTF frame per frame
+ * </pre>
+ * Payloads: ticks carry the duration in a; block events carry x in the high and z in
+ * the low half of a, and y in b; player events carry the UUID in a and b and have
+ * world index -1.
+ */
+public class LagSpikeRecorder {
+    public static final byte KIND_TICK = 1;
+    public static final byte KIND_BLOCK_PLACE = 2;
+    public static final byte KIND_BLOCK_BREAK = 3;
+    public static final byte KIND_BLOCK_USE = 4;
+    public static final byte KIND_PLAYER_CONNECT = 5;
+    public static final byte KIND_PLAYER_DISCONNECT = 6;
+    public static final byte KIND_WORLD_ADD = 7;
+    public static final byte KIND_WORLD_REMOVE = 8;
+
+    private static final int MAGIC = 0x48434C53;
+    private static final short VERSION = 2;
+    private static final long IN_PROGRESS = -1L;
+    private static final int MAX_WORLDS = 256;
+    private static final String FILE_PREFIX = "spike-";
+    private static final String FILE_SUFFIX = ".bin";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final AttributeKey<String> WORLD_NAME = AttributeKey.stringKey("world.name");
+    private static final AttributeKey<Double> TICK_DURATION_MS = AttributeKey.doubleKey("tick.duration_ms");
+    private static final AttributeKey<String> DUMP_FILE = AttributeKey.stringKey("lag.dump.file");
+    private static final AttributeKey<Long> DUMP_EVENTS = AttributeKey.longKey("lag.dump.events");
+
+    private final PluginConfig.FlightRecorderConfig recorderConfig;
+    private final Path directory;
+    private final HytaleLogger logger;
+    private final Tracer tracer;
+    private final ScheduledExecutorService scheduler;
+    private final long thresholdNanos;
+    private final long windowNanos;
+    private final long cooldownNanos;
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final long[] times;
+    private final byte[] kinds;
+    private final short[] worldIndexes;
+    private final long[] payloadA;
+    private final long[] payloadB;
+    private final AtomicLong head = new AtomicLong();
+
+    private final Map<String, WorldState> worlds = new ConcurrentHashMap<>();
+    private final String[] worldNames = new String[MAX_WORLDS];
+    private int worldCount;
+    private final AtomicLong lastDump = new AtomicLong(Long.MIN_VALUE);
+
+    // Thread dump of a tick still running past the threshold; only used on the scheduler thread
+    private long stalledTickStart;
+    private long stalledDumpNanos;
+    private ThreadInfo[] stalledThreads;
+
+    /**
+     * @param tracer tracer for "lag.spike" spans, or null
+     */
+    public LagSpikeRecorder(PluginConfig.FlightRecorderConfig recorderConfig, Path directory, HytaleLogger logger,
+                            Tracer tracer, ScheduledExecutorService scheduler) {
+        this.recorderConfig = recorderConfig;
+        this.directory = directory;
+        this.logger = logger;
+        this.tracer = tracer;
+        this.scheduler = scheduler;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(recorderConfig.getTickThresholdMs());
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(recorderConfig.getWindowMs());
+        this.cooldownNanos = TimeUnit.MILLISECONDS.toNanos(recorderConfig.getCooldownMs());
+
+        int capacity = Integer.highestOneBit(Math.max(2, recorderConfig.getBufferSize() - 1)) << 1;
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        this.times = new long[capacity];
+        this.kinds = new byte[capacity];
+        this.worldIndexes = new short[capacity];
+        this.payloadA = new long[capacity];
+        this.payloadB = new long[capacity];
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, IN_PROGRESS);
+        }
+    }
+
+    /**
+     * Start the watchdog that dumps threads while a tick is running over the threshold.
+     */
+    public void start() {
+        long periodNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(10), thresholdNanos / 2);
+        scheduler.scheduleAtFixedRate(this::watch, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Mark the start of a world tick.
+     */
+    public void onTickStart(String worldName, long nowNanos) {
+        world(worldName).tickStart = nowNanos;
+    }
+
+    /**
+     * Record a finished world tick and dump the window if the tick exceeded the threshold.
+     */
+    public void onTickEnd(String worldName, long nowNanos) {
+        WorldState world = world(worldName);
+        long start = world.tickStart;
+        if (start == 0) {
+            return;
+        }
+        world.tickStart = 0;
+        long duration = nowNanos - start;
+        record(KIND_TICK, world.index, nowNanos, duration, 0);
+        if (duration >= thresholdNanos) {
+            trigger(world, start, nowNanos, duration);
+        }
+    }
+
+    public void recordBlock(byte kind, String worldName, int x, int y, int z) {
+        record(kind, world(worldName).index, System.nanoTime(), ((long) x << 32) | (z & 0xFFFFFFFFL), y);
+    }
+
+    public void recordPlayer(byte kind, UUID playerUuid) {
+        record(kind, (short) -1, System.nanoTime(), playerUuid.getMostSignificantBits(),
+                playerUuid.getLeastSignificantBits());
+    }
+
+    public void recordWorld(byte kind, String worldName) {
+        WorldState world = world(worldName);
+        if (kind == KIND_WORLD_REMOVE) {
+            // The index is kept so earlier events in the window still resolve to the name
+            world.tickStart = 0;
+        }
+        record(kind, world.index, System.nanoTime(), 0, 0);
+    }
+
+    private void record(byte kind, short worldIndex, long time, long a, long b) {
+        long sequence = head.getAndIncrement();
+        int slot = (int) (sequence & mask);
+        sequences.lazySet(slot, IN_PROGRESS);
+        // Keep the field stores below from becoming visible before the slot is marked
+        VarHandle.storeStoreFence();
+        times[slot] = time;
+        kinds[slot] = kind;
+        worldIndexes[slot] = worldIndex;
+        payloadA[slot] = a;
+        payloadB[slot] = b;
+        sequences.lazySet(slot, sequence);
+    }
+
+    private WorldState world(String worldName) {
+        String name = worldName != null ? worldName : "unknown";
+        WorldState world = worlds.get(name);
+        if (world == null) {
+            world = worlds.computeIfAbsent(name, this::newWorld);
+        }
+        return world;
+    }
+
+    private WorldState newWorld(String name) {
+        synchronized (worldNames) {
+            // Worlds past the table size share the last index
+            int index = Math.min(worldCount, MAX_WORLDS - 1);
+            if (worldCount < MAX_WORLDS) {
+                worldNames[index] = name;
+                worldCount++;
+            }
+            return new WorldState((short) index);
+        }
+    }
+
+    /**
+     * Take a thread dump of the slowest tick still running past the threshold, unless a
+     * dump would be skipped by the cooldown anyway or this tick already has one.
+     */
+    private void watch() {
+        long now = System.nanoTime();
+        long last = lastDump.get();
+        if (last != Long.MIN_VALUE && now - last < cooldownNanos) {
+            return;
+        }
+        long slowestStart = 0;
+        for (WorldState world : worlds.values()) {
+            long start = world.tickStart;
+            if (start != 0 && now - start >= thresholdNanos && (slowestStart == 0 || start < slowestStart)) {
+                slowestStart = start;
+            }
+        }
+        if (slowestStart == 0 || slowestStart == stalledTickStart) {
+            return;
+        }
+        try {
+            stalledThreads = dumpThreads();
+            stalledTickStart = slowestStart;
+            stalledDumpNanos = System.nanoTime();
+        } catch (RuntimeException e) {
+            logger.at(Level.WARNING).withCause(e).log("Failed to dump threads of a stalled tick");
+        }
+    }
+
+    private void trigger(WorldState world, long tickStart, long nowNanos, long duration) {
+        long last = lastDump.get();
+        if (last != Long.MIN_VALUE && nowNanos - last < cooldownNanos) {
+            return;
+        }
+        if (!lastDump.compareAndSet(last, nowNanos)) {
+            return;
+        }
+        SpanContext spanContext = Span.current().getSpanContext();
+        long epochMillis = System.currentTimeMillis();
+        String worldName = worldNames[world.index];
+        long newest = head.get() - 1;
+        scheduler.execute(() -> dump(worldName, tickStart, nowNanos, duration, epochMillis, spanContext, newest));
+    }
+
+    private void dump(String worldName, long tickStart, long triggerNanos, long duration, long epochMillis,
+                      SpanContext spanContext, long newest) {
+        try {
+            Window window = copyWindow(triggerNanos, newest);
+            ThreadInfo[] threads;
+            long threadsNanos;
+            if (stalledThreads != null && stalledTickStart == tickStart) {
+                threads = stalledThreads;
+                threadsNanos = stalledDumpNanos;
+            } else {
+                threads = dumpThreads();
+                threadsNanos = System.nanoTime();
+            }
+            stalledThreads = null;
+
+            Files.createDirectories(directory);
+            String time = LocalDateTime.now().format(FILE_TIME);
+            Path file = directory.resolve(FILE_PREFIX + time + FILE_SUFFIX);
+            writeDump(file, worldName, triggerNanos, duration, epochMillis, spanContext, window,
+                    triggerNanos - threadsNanos, threads);
+            pruneDumps();
+
+            logger.at(Level.WARNING).log(String.format("Lag spike in world %s: tick took %.1f ms, wrote %s",
+                    worldName, duration / 1_000_000.0, file.getFileName()));
+            if (tracer != null) {
+                Span span = tracer.spanBuilder("lag.spike")
+                        .setNoParent()
+                        .setStartTimestamp(TimeUnit.MILLISECONDS.toNanos(epochMillis) - duration, TimeUnit.NANOSECONDS)
+                        .setAttribute(WORLD_NAME, worldName)
+                        .setAttribute(TICK_DURATION_MS, duration / 1_000_000.0)
+                        .setAttribute(DUMP_FILE, file.getFileName().toString())
+                        .setAttribute(DUMP_EVENTS, (long) window.count)
+                        .startSpan();
+                if (spanContext.isValid()) {
+                    span.setAttribute("lag.active_trace_id", spanContext.getTraceId());
+                    span.setAttribute("lag.active_span_id", spanContext.getSpanId());
+                }
+                span.setStatus(StatusCode.ERROR, "Tick exceeded lag spike threshold");
+                span.end(TimeUnit.MILLISECONDS.toNanos(epochMillis), TimeUnit.NANOSECONDS);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.at(Level.WARNING).withCause(e).log("Failed to write lag spike dump");
+        }
+    }
+
+    private ThreadInfo[] dumpThreads() {
+        return ManagementFactory.getThreadMXBean().dumpAllThreads(false, false, recorderConfig.getThreadDumpDepth());
+    }
+
+    /**
+     * Copy the published events of the window, oldest first, skipping slots overwritten during the copy.
+     */
+    private Window copyWindow(long triggerNanos, long newest) {
+        int capacity = mask + 1;
+        Window window = new Window(capacity);
+        long oldest = Math.max(0, newest - capacity + 1);
+        for (long sequence = oldest; sequence <= newest; sequence++) {
+            int slot = (int) (sequence & mask);
+            if (sequences.get(slot) != sequence) {
+                continue;
+            }
+            long time = times[slot];
+            byte kind = kinds[slot];
+            short worldIndex = worldIndexes[slot];
+            long a = payloadA[slot];
+            long b = payloadB[slot];
+            VarHandle.loadLoadFence();
+            if (sequences.get(slot) != sequence || triggerNanos - time > windowNanos) {
+                continue;
+            }
+            window.add(triggerNanos - time, kind, worldIndex, a, b);
+        }
+        return window;
+    }
+
+    private void writeDump(Path file, String worldName, long triggerNanos, long duration, long epochMillis,
+                           SpanContext spanContext, Window window, long threadsAgo,
+                           ThreadInfo[] threads) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(epochMillis);
+            out.writeLong(duration);
+            out.writeUTF(worldName);
+            out.writeUTF(spanContext.isValid() ? spanContext.getTraceId() : "");
+            out.writeUTF(spanContext.isValid() ? spanContext.getSpanId() : "");
+
+            String[] names;
+            synchronized (worldNames) {
+                names = new String[worldCount];
+                System.arraycopy(worldNames, 0, names, 0, worldCount);
+            }
+            out.writeShort(names.length);
+            for (String name : names) {
+                out.writeUTF(name);
+            }
+
+            out.writeInt(window.count);
+            for (int i = 0; i < window.count; i++) {
+                out.writeLong(window.ago[i]);
+                out.writeByte(window.kinds[i]);
+                out.writeShort(window.worldIndexes[i]);
+                out.writeLong(window.a[i]);
+                out.writeLong(window.b[i]);
+            }
+
+            out.writeLong(threadsAgo);
+            out.writeInt(threads.length);
+            for (ThreadInfo thread : threads) {
+                out.writeLong(thread.getThreadId());
+                out.writeUTF(thread.getThreadName());
+                out.writeUTF(thread.getThreadState().name());
+                StackTraceElement[] frames = thread.getStackTrace();
+                out.writeShort(frames.length);
+                for (StackTraceElement frame : frames) {
+                    out.writeUTF(frame.toString());
+                }
+            }
+        }
+    }
+
+    /**
+     * Delete the oldest dumps beyond the configured file count.
+     */
+    private void pruneDumps() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        } catch (IOException e) {
+            return;
+        }
+        // Timestamped names sort chronologically
+        files.sort(null);
+        for (int i = 0; i < files.size() - recorderConfig.getMaxFiles(); i++) {
+            try {
+                Files.deleteIfExists(files.get(i));
+            } catch (IOException e) {
+                // Retried after the next dump
+            }
+        }
+    }
+
+    private static final class WorldState {
+        final short index;
+        // Written by the world's tick thread, reset when the world is removed
+        volatile long tickStart;
+
+        WorldState(short index) {
+            this.index = index;
+        }
+    }
+
+    private static final class Window {
+        final long[] ago;
+        final byte[] kinds;
+        final short[] worldIndexes;
+        final long[] a;
+        final long[] b;
+        int count;
+
+        Window(int capacity) {
+            ago = new long[capacity];
+            kinds = new byte[capacity];
+            worldIndexes = new short[capacity];
+            a = new long[capacity];
+            b = new long[capacity];
+        }
+
+        void add(long nanosAgo, byte kind, short worldIndex, long valueA, long valueB) {
+            ago[count] = nanosAgo;
+            kinds[count] = kind;
+            worldIndexes[count] = worldIndex;
+            a[count] = valueA;
+            b[count] = valueB;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size log-linear histogram of positive long values (typically nanoseconds).
+ *
+ * Each power of two is split into 16 linear sub-buckets, giving roughly 6% relative
+ * error over the whole range while using constant memory. Recording is lock-free and
+ * allocation-free. {@link #snapshotAndReset} drains the current window into a
+ * caller-owned {@link Snapshot} so quantiles can be read once per export.
+ */
+public final class LogLinearHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40; // ~1.1e12, about 18 minutes in nanoseconds
+    private static final int BUCKETS = (MAX_EXPONENT + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        counts.incrementAndGet(index(value));
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Move the counts recorded since the last call into the snapshot and reset the window.
+     */
+    public void snapshotAndReset(Snapshot snapshot) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts.getAndSet(i, 0);
+            snapshot.counts[i] = count;
+            total += count;
+        }
+        snapshot.count = total;
+        snapshot.max = max.getAndSet(0);
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(0, value);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return exponent * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Representative value (bucket midpoint) for a bucket index.
+     */
+    static double midpoint(int index) {
+        int exponent = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        if (exponent < SUB_BUCKET_BITS) {
+            return index;
+        }
+        double lower = (double) (SUB_BUCKETS + sub) * (1L << (exponent - SUB_BUCKET_BITS));
+        double width = (double) (1L << (exponent - SUB_BUCKET_BITS));
+        return lower + width / 2;
+    }
+
+    /**
+     * Reusable copy of one histogram window.
+     */
+    public static final class Snapshot {
+        private final long[] counts = new long[BUCKETS];
+        private long count;
+        private long max;
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Approximate value at the given quantile (0..1), or 0 if the window is empty.
+         */
+        public double quantile(double q) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(q * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= Math.max(1, rank)) {
+                    return Math.min(midpoint(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded open-addressing map from primitive long keys to values.
+ *
+ * Lookups are lock-free and allocation-free; inserts synchronize on the cache and
+ * are expected to be rare once the working set has been seen. Entries are never
+ * removed individually, the cache only stops accepting new keys once it is full.
+ */
+public final class LongObjectCache<V> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int maxSize;
+    private volatile Table<V> table = new Table<>(INITIAL_CAPACITY);
+    private int size;
+
+    public LongObjectCache(int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+    }
+
+    /**
+     * Return the value cached for the key, or null if it is not present.
+     */
+    public V get(long key) {
+        Table<V> t = table;
+        int mask = t.keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            V value = t.values.get(i);
+            if (value == null) {
+                return null;
+            }
+            if (t.keys[i] == key) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Insert the value unless the key is already present.
+     *
+     * @return the value now associated with the key, or null if the cache is full
+     */
+    public synchronized V putIfAbsent(long key, V value) {
+        V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (size >= maxSize) {
+            return null;
+        }
+        Table<V> t = table;
+        if ((size + 1) * 2 > t.keys.length) {
+            t = t.resize();
+            table = t;
+        }
+        t.insert(key, value);
+        size++;
+        return value;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Table<V> {
+        final long[] keys;
+        final AtomicReferenceArray<V> values;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new AtomicReferenceArray<>(capacity);
+        }
+
+        void insert(long key, V value) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (values.get(i) != null) {
+                i = (i + 1) & mask;
+            }
+            // The key must be visible before the value is published to readers
+            keys[i] = key;
+            values.set(i, value);
+        }
+
+        Table<V> resize() {
+            Table<V> next = new Table<>(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                V value = values.get(i);
+                if (value != null) {
+                    next.insert(keys[i], value);
+                }
+            }
+            return next;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.uberswe.hytale.otel.config.PluginConfig;
+import io.opentelemetry.sdk.metrics.Aggregation;
+import io.opentelemetry.sdk.metrics.InstrumentSelector;
+import io.opentelemetry.sdk.metrics.SdkMeterProviderBuilder;
+import io.opentelemetry.sdk.metrics.View;
+import io.opentelemetry.sdk.metrics.ViewBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Translates the "views" section of the metrics configuration into SDK Views.
+ *
+ * The SDK fixes a view when the meter provider is built. Attribute filters are the
+ * exception here: a view that keeps or drops attributes at startup is registered with
+ * a predicate over key sets held by this class, so {@link #reload} can swap them later.
+ */
+final class MetricViews {
+    // Limits enforced by the SDK's base2 exponential histogram
+    private static final int MIN_MAX_BUCKETS = 2;
+    private static final int MIN_SCALE = -10;
+    private static final int MAX_SCALE = 20;
+
+    private static final Pattern VIEW_ATTRIBUTES =
+            Pattern.compile("metrics\\.views\\[(\\d+)]\\.(keepAttributes|dropAttributes)(\\[\\d+])?");
+
+    private final HytaleLogger logger;
+    // Indexed like the configured views; null where a view has no attribute filter
+    private final List<AttributeFilter> filters = new ArrayList<>();
+
+    MetricViews(HytaleLogger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Register the configured views.
+     *
+     * @return exact instrument names covered by a configured view, so built-in views for them can be skipped
+     */
+    Set<String> register(SdkMeterProviderBuilder builder, List<PluginConfig.ViewConfig> views) {
+        Set<String> covered = new HashSet<>();
+        filters.clear();
+        if (views == null) {
+            return covered;
+        }
+        for (PluginConfig.ViewConfig view : views) {
+            filters.add(null);
+            String instrument = view.getInstrument();
+            if (instrument == null || instrument.isBlank()) {
+                logger.at(Level.WARNING).log("Ignoring metrics view without an instrument name");
+                continue;
+            }
+            Aggregation aggregation;
+            try {
+                aggregation = aggregation(view);
+            } catch (IllegalArgumentException e) {
+                // The SDK would otherwise throw the same out of buildMeterProvider
+                logger.at(Level.WARNING).log(String.format("Ignoring metrics view for %s: %s",
+                        instrument, e.getMessage()));
+                continue;
+            }
+            if (aggregation == null) {
+                logger.at(Level.WARNING).log(String.format("Ignoring metrics view for %s: unknown aggregation '%s'",
+                        instrument, view.getAggregation()));
+                continue;
+            }
+
+            boolean wildcard = instrument.indexOf('*') >= 0 || instrument.indexOf('?') >= 0;
+            ViewBuilder viewBuilder = View.builder().setAggregation(aggregation);
+            if (view.getName() != null && !view.getName().isBlank()) {
+                if (wildcard) {
+                    // Renaming every match to one name would merge unrelated instruments
+                    logger.at(Level.WARNING).log(String.format(
+                            "Ignoring rename in metrics view for %s: renames need an exact instrument name", instrument));
+                } else {
+                    viewBuilder.setName(view.getName());
+                }
+            }
+            if (view.getDescription() != null && !view.getDescription().isBlank()) {
+                viewBuilder.setDescription(view.getDescription());
+            }
+            if (view.getKeepAttributes() != null
+                    || (view.getDropAttributes() != null && !view.getDropAttributes().isEmpty())) {
+                // Views without a filter skip the SDK's per-measurement attribute copy
+                AttributeFilter filter = new AttributeFilter(view);
+                viewBuilder.setAttributeFilter(filter);
+                filters.set(filters.size() - 1, filter);
+            }
+
+            builder.registerView(InstrumentSelector.builder().setName(instrument).build(), viewBuilder.build());
+            if (!wildcard) {
+                covered.add(instrument);
+            }
+        }
+        return covered;
+    }
+
+    /**
+     * Why a changed views setting cannot be applied at runtime, or null if it can.
+     */
+    String reloadRejection(String path) {
+        Matcher matcher = VIEW_ATTRIBUTES.matcher(path);
+        if (matcher.matches()) {
+            int index = Integer.parseInt(matcher.group(1));
+            return index < filters.size() && filters.get(index) != null
+                    ? null : "the view had no keepAttributes or dropAttributes at startup";
+        }
+        if (path.equals("metrics.views")) {
+            return "views cannot be added or removed at runtime";
+        }
+        return "only keepAttributes and dropAttributes of a view can change at runtime;"
+                + " instrument, name, description, aggregation and buckets are fixed at startup";
+    }
+
+    /**
+     * Apply the attribute filters of reloaded views. Call only once every changed path
+     * passed {@link #reloadRejection}, so the views match those registered.
+     */
+    void reload(List<PluginConfig.ViewConfig> views) {
+        if (views == null) {
+            return;
+        }
+        for (int i = 0; i < filters.size() && i < views.size(); i++) {
+            AttributeFilter filter = filters.get(i);
+            if (filter != null) {
+                filter.update(views.get(i));
+            }
+        }
+    }
+
+    /**
+     * @return the aggregation, or null if the name is unknown
+     * @throws IllegalArgumentException if the bucket settings are out of range
+     */
+    private static Aggregation aggregation(PluginConfig.ViewConfig view) {
+        String name = view.getAggregation() != null ? view.getAggregation().toLowerCase(Locale.ROOT) : "default";
+        return switch (name) {
+            case "default" -> Aggregation.defaultAggregation();
+            case "drop" -> Aggregation.drop();
+            case "sum" -> Aggregation.sum();
+            case "last_value" -> Aggregation.lastValue();
+            case "explicit", "explicit_bucket_histogram" -> view.getBuckets() != null && !view.getBuckets().isEmpty()
+                    ? Aggregation.explicitBucketHistogram(checkBuckets(view.getBuckets()))
+                    : Aggregation.explicitBucketHistogram();
+            case "exponential", "base2_exponential_bucket_histogram" -> {
+                if (view.getMaxBuckets() < MIN_MAX_BUCKETS) {
+                    throw new IllegalArgumentException(String.format("maxBuckets must be at least %d, got %d",
+                            MIN_MAX_BUCKETS, view.getMaxBuckets()));
+                }
+                if (view.getMaxScale() < MIN_SCALE || view.getMaxScale() > MAX_SCALE) {
+                    throw new IllegalArgumentException(String.format("maxScale must be between %d and %d, got %d",
+                            MIN_SCALE, MAX_SCALE, view.getMaxScale()));
+                }
+                yield Aggregation.base2ExponentialBucketHistogram(view.getMaxBuckets(), view.getMaxScale());
+            }
+            default -> null;
+        };
+    }
+
+    /**
+     * Bucket boundaries must be finite and strictly increasing.
+     */
+    private static List<Double> checkBuckets(List<Double> buckets) {
+        double previous = Double.NEGATIVE_INFINITY;
+        for (Double bucket : buckets) {
+            if (bucket == null || !Double.isFinite(bucket)) {
+                throw new IllegalArgumentException("buckets must be finite numbers, got " + buckets);
+            }
+            if (bucket <= previous) {
+                throw new IllegalArgumentException("buckets must be strictly increasing, got " + buckets);
+            }
+            previous = bucket;
+        }
+        return buckets;
+    }
+
+    /**
+     * Attribute key filter of one view. An allowlist, when set, takes precedence over the drop list.
+     */
+    private static final class AttributeFilter implements Predicate<String> {
+        private volatile Set<String> keep;
+        private volatile Set<String> drop;
+
+        AttributeFilter(PluginConfig.ViewConfig view) {
+            update(view);
+        }
+
+        void update(PluginConfig.ViewConfig view) {
+            drop = view.getDropAttributes() != null ? Set.copyOf(view.getDropAttributes()) : Set.of();
+            keep = view.getKeepAttributes() != null ? Set.copyOf(view.getKeepAttributes()) : null;
+        }
+
+        @Override
+        public boolean test(String key) {
+            Set<String> allowed = keep;
+            return allowed != null ? allowed.contains(key) : !drop.contains(key);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Players currently online, and the world each of them is in.
+ *
+ * Every online player has one entry in a UUID-keyed map. The total and per-world
+ * counts are striped counters that only change when a map operation actually added,
+ * moved or removed a player, so duplicate or racing events do not skew them. The
+ * counts are reported as gauges with one series per world instead of per player.
+ */
+public class PlayerRegistry {
+    private static final AttributeKey<String> WORLD_NAME = AttributeKey.stringKey("world.name");
+    private static final String UNKNOWN_WORLD = "unknown";
+
+    private final Map<UUID, String> players = new ConcurrentHashMap<>();
+    private final Map<String, WorldCount> worlds = new ConcurrentHashMap<>();
+    private final LongAdder online = new LongAdder();
+
+    public PlayerRegistry(Meter meter) {
+        ObservableLongMeasurement total = meter.gaugeBuilder("hytale.players.count")
+                .setDescription("Current number of online players")
+                .setUnit("{players}")
+                .ofLongs()
+                .buildObserver();
+        ObservableLongMeasurement perWorld = meter.gaugeBuilder("hytale.players.online")
+                .setDescription("Current number of online players, by world")
+                .setUnit("{players}")
+                .ofLongs()
+                .buildObserver();
+        meter.batchCallback(() -> {
+            total.record(online.sum());
+            for (WorldCount world : worlds.values()) {
+                long count = world.players.sum();
+                if (count > 0) {
+                    perWorld.record(count, world.attributes);
+                }
+            }
+        }, total, perWorld);
+    }
+
+    /**
+     * @param worldName world the player joins, or null if not known yet
+     */
+    public void onConnect(UUID playerUuid, String worldName) {
+        String world = worldName != null ? worldName : UNKNOWN_WORLD;
+        String previous = players.put(playerUuid, world);
+        if (previous == null) {
+            online.increment();
+            world(world).increment();
+        } else if (!previous.equals(world)) {
+            world(previous).decrement();
+            world(world).increment();
+        }
+    }
+
+    /**
+     * Move an online player to another world. Ignored for players that are not online.
+     */
+    public void onWorldChange(UUID playerUuid, String worldName) {
+        if (worldName == null) {
+            return;
+        }
+        String previous = players.get(playerUuid);
+        if (previous != null && !previous.equals(worldName) && players.replace(playerUuid, previous, worldName)) {
+            world(previous).decrement();
+            world(worldName).increment();
+        }
+    }
+
+    public void onDisconnect(UUID playerUuid) {
+        String previous = players.remove(playerUuid);
+        if (previous != null) {
+            online.decrement();
+            world(previous).decrement();
+        }
+    }
+
+    /**
+     * Live view of the UUIDs of online players.
+     */
+    public Iterable<UUID> onlinePlayers() {
+        return players.keySet();
+    }
+
+    public int size() {
+        return (int) online.sum();
+    }
+
+    /**
+     * Drop the count of a world once no players are left in it, e.g. when it is unloaded.
+     */
+    public void removeWorld(String worldName) {
+        if (worldName != null) {
+            worlds.computeIfPresent(worldName, (name, world) -> world.players.sum() == 0 ? null : world);
+        }
+    }
+
+    private LongAdder world(String worldName) {
+        WorldCount world = worlds.get(worldName);
+        if (world == null) {
+            world = worlds.computeIfAbsent(worldName, WorldCount::new);
+        }
+        return world.players;
+    }
+
+    private static final class WorldCount {
+        final Attributes attributes;
+        final LongAdder players = new LongAdder();
+
+        WorldCount(String worldName) {
+            this.attributes = Attributes.of(WORLD_NAME, worldName);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Player session tracking: session duration metric and checkpointed session traces.
+ *
+ * A session is traced as a short "player.session" root span, ended as soon as the
+ * player connects, and a chain of "player.session.segment" child spans of at most
+ * the configured segment duration. Only the current segment is held open, so memory
+ * per player stays constant and completed segments are exported while the player is
+ * still online. Segments are rotated by a task on the shared scheduler.
+ */
+public class PlayerSessions {
+    private static final AttributeKey<String> PLAYER_UUID = AttributeKey.stringKey("player.uuid");
+    private static final AttributeKey<String> PLAYER_NAME = AttributeKey.stringKey("player.name");
+    private static final AttributeKey<Long> SEGMENT_INDEX = AttributeKey.longKey("session.segment.index");
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final long MIN_ROTATION_CHECK_MS = 1000;
+
+    private final Tracer tracer;
+    private final DoubleHistogram sessionDuration;
+    private final long segmentDurationMs;
+    private final Map<UUID, Session> sessions = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> rotation;
+
+    /**
+     * @param tracer          tracer for session spans, or null if sessions are not traced
+     * @param sessionDuration histogram for completed session durations, or null
+     */
+    public PlayerSessions(Tracer tracer, DoubleHistogram sessionDuration, long segmentDurationMs) {
+        this.tracer = tracer;
+        this.sessionDuration = sessionDuration;
+        this.segmentDurationMs = segmentDurationMs;
+    }
+
+    /**
+     * Schedule segment rotation. Segments are checked a few times per segment duration.
+     */
+    public void start(ScheduledExecutorService scheduler) {
+        if (tracer == null || segmentDurationMs <= 0) {
+            return;
+        }
+        long period = Math.max(MIN_ROTATION_CHECK_MS, segmentDurationMs / 4);
+        rotation = scheduler.scheduleWithFixedDelay(this::rotateExpired, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public void onConnect(UUID playerUuid, String playerName) {
+        long now = System.nanoTime();
+        Session session = new Session(now);
+        if (tracer != null) {
+            Attributes attributes = Attributes.of(PLAYER_UUID, playerUuid.toString(), PLAYER_NAME, playerName);
+            Span root = tracer.spanBuilder("player.session")
+                    .setSpanKind(SpanKind.SERVER)
+                    .setAllAttributes(attributes)
+                    .startSpan();
+            root.addEvent("player.connect");
+            root.end();
+            session.trace(Context.root().with(root), attributes);
+            session.openSegment(tracer, now);
+        }
+
+        Session previous = sessions.put(playerUuid, session);
+        if (previous != null) {
+            // Connected again without a disconnect in between
+            previous.close("player.reconnect", "Replaced by new session");
+        }
+    }
+
+    /**
+     * Add an event to the player's current session segment.
+     */
+    public void addEvent(UUID playerUuid, String eventName) {
+        Session session = sessions.get(playerUuid);
+        if (session != null) {
+            session.addEvent(eventName);
+        }
+    }
+
+    public void onDisconnect(UUID playerUuid) {
+        Session session = sessions.remove(playerUuid);
+        if (session == null) {
+            return;
+        }
+        if (sessionDuration != null) {
+            sessionDuration.record((System.nanoTime() - session.startNanos) / NANOS_PER_SECOND);
+        }
+        session.close("player.disconnect", null);
+    }
+
+    /**
+     * Stop rotation and end every open segment, e.g. on shutdown.
+     */
+    public void endAll(String reason) {
+        if (rotation != null) {
+            rotation.cancel(false);
+        }
+        for (Session session : sessions.values()) {
+            session.close(null, reason);
+        }
+        sessions.clear();
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private void rotateExpired() {
+        long now = System.nanoTime();
+        long segmentNanos = TimeUnit.MILLISECONDS.toNanos(segmentDurationMs);
+        for (Session session : sessions.values()) {
+            session.rotateIfExpired(tracer, now, segmentNanos);
+        }
+    }
+
+    private static final class Session {
+        final long startNanos;
+        private Context rootContext;
+        private Attributes attributes;
+        private Span segment;
+        private long segmentStart;
+        private long segmentIndex;
+
+        Session(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        void trace(Context rootContext, Attributes attributes) {
+            this.rootContext = rootContext;
+            this.attributes = attributes;
+        }
+
+        synchronized void openSegment(Tracer tracer, long now) {
+            segment = tracer.spanBuilder("player.session.segment")
+                    .setParent(rootContext)
+                    .setSpanKind(SpanKind.INTERNAL)
+                    .setAllAttributes(attributes)
+                    .setAttribute(SEGMENT_INDEX, segmentIndex++)
+                    .startSpan();
+            segmentStart = now;
+        }
+
+        synchronized void addEvent(String eventName) {
+            if (segment != null) {
+                segment.addEvent(eventName);
+            }
+        }
+
+        synchronized void rotateIfExpired(Tracer tracer, long now, long segmentNanos) {
+            if (segment != null && now - segmentStart >= segmentNanos) {
+                segment.end();
+                openSegment(tracer, now);
+            }
+        }
+
+        synchronized void close(String eventName, String description) {
+            if (segment == null) {
+                return;
+            }
+            if (eventName != null) {
+                segment.addEvent(eventName);
+            }
+            if (description != null) {
+                segment.setStatus(StatusCode.OK, description);
+            } else {
+                segment.setStatus(StatusCode.OK);
+            }
+            segment.end();
+            segment = null;
+        }
+    }
+}
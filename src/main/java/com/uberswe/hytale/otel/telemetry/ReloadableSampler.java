@@ -0,0 +1,37 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+
+/**
+ * Sampler whose delegate can be replaced at runtime, e.g. when the sample rate is
+ * reloaded. The tracer provider keeps this instance for its whole life.
+ */
+public class ReloadableSampler implements Sampler {
+    private volatile Sampler delegate;
+
+    public ReloadableSampler(Sampler delegate) {
+        this.delegate = delegate;
+    }
+
+    public void setDelegate(Sampler delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        return delegate.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+    }
+
+    @Override
+    public String getDescription() {
+        return "ReloadableSampler{" + delegate.getDescription() + "}";
+    }
+}
@@ -0,0 +1,39 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Sampler that drops every new span while tracing is being shed, and otherwise
+ * defers to the configured sampler. Spans already started are not affected.
+ */
+public class SheddingSampler implements Sampler {
+    private final Sampler delegate;
+    private final BooleanSupplier shedding;
+
+    public SheddingSampler(Sampler delegate, BooleanSupplier shedding) {
+        this.delegate = delegate;
+        this.shedding = shedding;
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        if (shedding.getAsBoolean()) {
+            return SamplingResult.drop();
+        }
+        return delegate.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+    }
+
+    @Override
+    public String getDescription() {
+        return "SheddingSampler{" + delegate.getDescription() + "}";
+    }
+}
@@ -0,0 +1,212 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import com.uberswe.hytale.otel.config.PluginConfig;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.AttributesBuilder;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolls block coordinates up into fixed-size cells so that block metrics carry a
+ * bounded number of location series per world.
+ *
+ * In chunk and region mode the Y axis is dropped and each cell is identified by its
+ * cell X/Z index. When a per-world cell cap is configured, positions in cells beyond
+ * the cap are reported against a single overflow cell.
+ */
+public class SpatialBucketer {
+    public static final AttributeKey<String> WORLD_NAME = AttributeKey.stringKey("world.name");
+    public static final AttributeKey<Long> BLOCK_X = AttributeKey.longKey("block.x");
+    public static final AttributeKey<Long> BLOCK_Y = AttributeKey.longKey("block.y");
+    public static final AttributeKey<Long> BLOCK_Z = AttributeKey.longKey("block.z");
+    public static final AttributeKey<Long> CELL_X = AttributeKey.longKey("block.cell.x");
+    public static final AttributeKey<Long> CELL_Z = AttributeKey.longKey("block.cell.z");
+    public static final AttributeKey<Boolean> CELL_OVERFLOW = AttributeKey.booleanKey("block.cell.overflow");
+
+    /**
+     * Packed cell key reported for positions in cells beyond the per-world cap.
+     */
+    public static final long OVERFLOW_CELL = Long.MIN_VALUE;
+
+    /**
+     * Location key for exact positions that do not fit the packed key layout.
+     */
+    public static final long UNPACKABLE = Long.MAX_VALUE;
+
+    private static final int EXACT_XZ_BITS = 25;
+    private static final int EXACT_Y_BITS = 12;
+
+    public enum Mode {
+        EXACT,
+        CHUNK,
+        REGION,
+        NONE;
+
+        static Mode parse(String value) {
+            if (value == null || value.isBlank()) {
+                return EXACT;
+            }
+            try {
+                return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return EXACT;
+            }
+        }
+    }
+
+    private final Mode mode;
+    private final int cellSize;
+    private final int chunkSize;
+    private final int maxCellsPerWorld;
+    private final Map<String, WorldCells> worlds = new ConcurrentHashMap<>();
+
+    public SpatialBucketer(PluginConfig.SpatialAggregationConfig config) {
+        this.mode = Mode.parse(config.getMode());
+        this.cellSize = switch (mode) {
+            case CHUNK -> Math.max(1, config.getChunkSize());
+            case REGION -> Math.max(1, config.getRegionSize());
+            default -> 1;
+        };
+        this.chunkSize = Math.max(1, config.getChunkSize());
+        this.maxCellsPerWorld = Math.max(0, config.getMaxCellsPerWorld());
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Whether block attributes are bucketed into cells rather than raw coordinates.
+     */
+    public boolean isBucketed() {
+        return mode == Mode.CHUNK || mode == Mode.REGION;
+    }
+
+    /**
+     * Resolve the packed cell key for a block position, applying the per-world cap.
+     * Returns {@link #OVERFLOW_CELL} when the world already tracks the maximum number of cells.
+     */
+    public long cellKey(String worldName, int x, int z) {
+        long key = pack(Math.floorDiv(x, cellSize), Math.floorDiv(z, cellSize));
+        if (maxCellsPerWorld == 0) {
+            return key;
+        }
+        String world = worldName == null ? "" : worldName;
+        WorldCells cells = worlds.get(world);
+        if (cells == null) {
+            cells = worlds.computeIfAbsent(world, w -> new WorldCells(maxCellsPerWorld));
+        }
+        return cells.admit(key) ? key : OVERFLOW_CELL;
+    }
+
+    /**
+     * Resolve a key identifying the location attributes a block position maps to.
+     * Two positions with the same key in the same world produce identical attributes,
+     * so the key can be used to cache built attribute sets.
+     */
+    public long locationKey(String worldName, int x, int y, int z) {
+        return switch (mode) {
+            case EXACT -> packExact(x, y, z);
+            case CHUNK, REGION -> cellKey(worldName, x, z);
+            case NONE -> 0L;
+        };
+    }
+
+    /**
+     * Packed chunkSize cell key for a block position, whatever the mode and without the
+     * per-world cap. Used as a coarser location once exact positions stop being cached.
+     */
+    public long chunkKey(int x, int z) {
+        return pack(Math.floorDiv(x, chunkSize), Math.floorDiv(z, chunkSize));
+    }
+
+    /**
+     * Add the configured location attributes for a block position to the builder.
+     */
+    public void putLocation(AttributesBuilder builder, String worldName, int x, int y, int z) {
+        putLocation(builder, worldName, locationKey(worldName, x, y, z), x, y, z);
+    }
+
+    /**
+     * Add location attributes for a key previously returned by {@link #locationKey}.
+     */
+    public void putLocation(AttributesBuilder builder, String worldName, long locationKey, int x, int y, int z) {
+        switch (mode) {
+            case EXACT -> builder
+                    .put(BLOCK_X, (long) x)
+                    .put(BLOCK_Y, (long) y)
+                    .put(BLOCK_Z, (long) z);
+            case CHUNK, REGION -> putCell(builder, worldName, locationKey);
+            case NONE -> {
+            }
+        }
+    }
+
+    /**
+     * Add cell attributes for a key returned by {@link #chunkKey}, or the overflow
+     * marker for {@link #OVERFLOW_CELL}.
+     */
+    public void putCell(AttributesBuilder builder, String worldName, long cellKey) {
+        if (worldName != null) {
+            builder.put(WORLD_NAME, worldName);
+        }
+        if (cellKey == OVERFLOW_CELL) {
+            builder.put(CELL_OVERFLOW, true);
+        } else {
+            builder.put(CELL_X, (long) cellX(cellKey))
+                    .put(CELL_Z, (long) cellZ(cellKey));
+        }
+    }
+
+    /**
+     * Forget tracked cells for a world, e.g. when it is unloaded.
+     */
+    public void clearWorld(String worldName) {
+        if (worldName != null) {
+            worlds.remove(worldName);
+        }
+    }
+
+    static long pack(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    static long packExact(int x, int y, int z) {
+        if (!fits(x, EXACT_XZ_BITS) || !fits(y, EXACT_Y_BITS) || !fits(z, EXACT_XZ_BITS)) {
+            return UNPACKABLE;
+        }
+        long xz = (1L << EXACT_XZ_BITS) - 1;
+        long ym = (1L << EXACT_Y_BITS) - 1;
+        return ((x & xz) << (EXACT_XZ_BITS + EXACT_Y_BITS)) | ((y & ym) << EXACT_XZ_BITS) | (z & xz);
+    }
+
+    private static boolean fits(int value, int bits) {
+        int limit = 1 << (bits - 1);
+        return value >= -limit && value < limit;
+    }
+
+    static int cellX(long key) {
+        return (int) (key >> 32);
+    }
+
+    static int cellZ(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Cells seen so far in one world, capped at maxCellsPerWorld.
+     */
+    private static final class WorldCells {
+        private final LongObjectCache<Boolean> cells;
+
+        WorldCells(int max) {
+            this.cells = new LongObjectCache<>(max);
+        }
+
+        boolean admit(long key) {
+            return cells.get(key) != null || cells.putIfAbsent(key, Boolean.TRUE) != null;
+        }
+    }
+}
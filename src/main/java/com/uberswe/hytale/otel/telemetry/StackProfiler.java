@@ -0,0 +1,340 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.uberswe.hytale.otel.config.PluginConfig;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import jdk.jfr.EventSettings;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Continuous sampling profiler built on JFR execution and allocation samples.
+ *
+ * Samples are folded into "root;...;leaf" stack keys and counted in a bounded map
+ * per profile type; stacks beyond the cap are counted under a single "[other]" key.
+ * Every write interval the maps are swapped out and written to the profiles
+ * directory in the collapsed-stack format read by flamegraph.pl and speedscope.
+ * CPU profiles are weighted by sample count, allocation profiles by sampled bytes.
+ *
+ * The overhead budget is checked against the CPU time of the JFR stream thread, which
+ * parses the recording and folds the samples. When a window used more than the budget,
+ * the sampling period and the allocation throttle are slowed down in proportion, and
+ * sped up again once the cost falls well below it. Every parsed sample is counted, so
+ * the profile stays unbiased at a lower resolution instead of losing the busy seconds.
+ */
+public class StackProfiler {
+    private static final String TYPE_CPU = "cpu";
+    private static final String TYPE_ALLOCATION = "alloc";
+    private static final String FILE_SUFFIX = ".folded";
+    private static final String OTHER_STACK = "[other]";
+    private static final String TRUNCATED_FRAME = "[truncated]";
+    private static final long BUDGET_WINDOW_MS = 5000;
+    private static final double MAX_SLOWDOWN = 64.0;
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final PluginConfig.ProfilerConfig profilerConfig;
+    private final Path directory;
+    private final HytaleLogger logger;
+    private final Tracer tracer;
+    private final FoldedStacks cpuStacks;
+    private final FoldedStacks allocationStacks;
+    private final StringBuilder key = new StringBuilder(1024);
+    private final double budgetShare;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private RecordingStream stream;
+    private EventSettings cpuSettings;
+    private EventSettings allocationSettings;
+    private ScheduledFuture<?> writeTask;
+    private ScheduledFuture<?> budgetTask;
+
+    // Set by the stream thread on its first sample
+    private volatile long streamThreadId = -1;
+    // Overhead budget state; only touched by the budget task
+    private long budgetWindowStart;
+    private long budgetCpuStart = -1;
+    private volatile double slowdown = 1.0;
+
+    /**
+     * @param tracer tracer for "profiler.snapshot" spans, or null
+     */
+    public StackProfiler(PluginConfig.ProfilerConfig profilerConfig, Path directory, HytaleLogger logger,
+                         Tracer tracer) {
+        this.profilerConfig = profilerConfig;
+        this.directory = directory;
+        this.logger = logger;
+        this.tracer = tracer;
+        this.cpuStacks = new FoldedStacks(TYPE_CPU, profilerConfig.getMaxStacks());
+        this.allocationStacks = new FoldedStacks(TYPE_ALLOCATION, profilerConfig.getMaxStacks());
+        this.budgetShare = Math.max(0.0, profilerConfig.getOverheadBudgetPercent()) / 100;
+    }
+
+    /**
+     * Start sampling and schedule profile writes.
+     *
+     * @return false if Flight Recorder is not available in this JVM
+     */
+    public boolean start(ScheduledExecutorService scheduler) throws IOException {
+        if (!FlightRecorder.isAvailable()) {
+            return false;
+        }
+        Files.createDirectories(directory);
+
+        stream = new RecordingStream();
+        stream.setReuse(true);
+        stream.setOrdered(false);
+        stream.setMaxAge(Duration.ofSeconds(30));
+        if (profilerConfig.isCpu()) {
+            cpuSettings = stream.enable("jdk.ExecutionSample");
+            stream.onEvent("jdk.ExecutionSample", event -> onSample(event, cpuStacks, 1, null));
+        }
+        if (profilerConfig.isAllocation()) {
+            allocationSettings = stream.enable("jdk.ObjectAllocationSample");
+            stream.onEvent("jdk.ObjectAllocationSample", event -> onSample(event, allocationStacks,
+                    event.getLong("weight"), event.getClass("objectClass")));
+        }
+        applySampling(1.0);
+        stream.startAsync();
+
+        long interval = profilerConfig.getWriteIntervalMs();
+        writeTask = scheduler.scheduleAtFixedRate(this::writeProfiles, interval, interval, TimeUnit.MILLISECONDS);
+        // A budget of 0 leaves sampling at the configured rates
+        if (budgetShare > 0 && threads.isThreadCpuTimeSupported()) {
+            budgetTask = scheduler.scheduleAtFixedRate(this::checkBudget, BUDGET_WINDOW_MS, BUDGET_WINDOW_MS,
+                    TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    /**
+     * Compare the stream thread's CPU time over the last window with the budget and
+     * slow sampling down or speed it back up.
+     */
+    private void checkBudget() {
+        long threadId = streamThreadId;
+        if (threadId < 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long cpu = threads.getThreadCpuTime(threadId);
+        if (cpu < 0) {
+            return;
+        }
+        if (budgetCpuStart >= 0 && now > budgetWindowStart) {
+            double share = (double) (cpu - budgetCpuStart) / (now - budgetWindowStart);
+            double next = slowdown;
+            if (share > budgetShare) {
+                // Parsing cost grows with the sample rate, so slow down in proportion
+                next = Math.min(MAX_SLOWDOWN, slowdown * share / budgetShare);
+            } else if (share < budgetShare / 2 && slowdown > 1.0) {
+                next = Math.max(1.0, slowdown / 2);
+            }
+            if (next != slowdown) {
+                applySampling(next);
+            }
+        }
+        budgetWindowStart = now;
+        budgetCpuStart = cpu;
+    }
+
+    private void applySampling(double factor) {
+        slowdown = factor;
+        if (cpuSettings != null) {
+            cpuSettings.withPeriod(Duration.ofMillis(Math.round(profilerConfig.getSamplingIntervalMs() * factor)));
+        }
+        if (allocationSettings != null) {
+            long perSecond = Math.max(1, Math.round(profilerConfig.getAllocationSamplesPerSecond() / factor));
+            allocationSettings.with("throttle", perSecond + "/s");
+        }
+    }
+
+    private void onSample(RecordedEvent event, FoldedStacks stacks, long weight, RecordedClass allocatedClass) {
+        if (streamThreadId < 0) {
+            streamThreadId = Thread.currentThread().getId();
+        }
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace != null) {
+            key.setLength(0);
+            if (stackTrace.isTruncated()) {
+                key.append(TRUNCATED_FRAME);
+            }
+            // JFR frames are leaf first, collapsed stacks are root first
+            List<RecordedFrame> frames = stackTrace.getFrames();
+            for (int i = frames.size() - 1; i >= 0; i--) {
+                RecordedMethod method = frames.get(i).getMethod();
+                if (key.length() > 0) {
+                    key.append(';');
+                }
+                key.append(method.getType().getName()).append('.').append(method.getName());
+            }
+            if (allocatedClass != null) {
+                key.append(";[").append(allocatedClass.getName()).append(']');
+            }
+            stacks.add(key.toString(), weight);
+        }
+    }
+
+    private void writeProfiles() {
+        String timestamp = LocalDateTime.now().format(FILE_TIME);
+        writeProfile(cpuStacks, timestamp);
+        writeProfile(allocationStacks, timestamp);
+    }
+
+    private void writeProfile(FoldedStacks stacks, String timestamp) {
+        FoldedStacks.Snapshot snapshot = stacks.drain();
+        if (snapshot.stacks.isEmpty()) {
+            return;
+        }
+        Path file = directory.resolve(stacks.type + "-" + timestamp + FILE_SUFFIX);
+        String heaviest = null;
+        long heaviestWeight = -1;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, long[]> entry : snapshot.stacks.entrySet()) {
+                long weight = entry.getValue()[0];
+                writer.write(entry.getKey());
+                writer.write(' ');
+                writer.write(Long.toString(weight));
+                writer.newLine();
+                if (weight > heaviestWeight) {
+                    heaviestWeight = weight;
+                    heaviest = entry.getKey();
+                }
+            }
+        } catch (IOException e) {
+            logger.at(Level.WARNING).log(String.format("Failed to write profile %s: %s", file, e.getMessage()));
+            return;
+        }
+        pruneProfiles(stacks.type);
+
+        if (tracer != null) {
+            Span span = tracer.spanBuilder("profiler.snapshot")
+                    .setNoParent()
+                    .setAttribute("profile.type", stacks.type)
+                    .setAttribute("profile.file", file.getFileName().toString())
+                    .setAttribute("profile.samples", snapshot.samples)
+                    .setAttribute("profile.stacks", snapshot.stacks.size())
+                    .setAttribute("profile.slowdown", slowdown)
+                    .setAttribute("profile.top_frame", leafFrame(heaviest))
+                    .startSpan();
+            span.end();
+        }
+    }
+
+    /**
+     * Delete the oldest profiles of a type beyond the configured file count.
+     */
+    private void pruneProfiles(String type) {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, type + "-*" + FILE_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        } catch (IOException e) {
+            return;
+        }
+        // Timestamped names sort chronologically
+        files.sort(null);
+        for (int i = 0; i < files.size() - profilerConfig.getMaxFiles(); i++) {
+            try {
+                Files.deleteIfExists(files.get(i));
+            } catch (IOException e) {
+                // Retried on the next write
+            }
+        }
+    }
+
+    private static String leafFrame(String stack) {
+        if (stack == null) {
+            return "";
+        }
+        int separator = stack.lastIndexOf(';');
+        return separator >= 0 ? stack.substring(separator + 1) : stack;
+    }
+
+    /**
+     * Factor the sampling period is currently stretched by to stay within the budget; 1 at the configured rates.
+     */
+    public double getSlowdown() {
+        return slowdown;
+    }
+
+    /**
+     * Stop sampling and write what has been collected since the last write.
+     */
+    public void stop() {
+        if (writeTask != null) {
+            writeTask.cancel(false);
+        }
+        if (budgetTask != null) {
+            budgetTask.cancel(false);
+        }
+        if (stream != null) {
+            stream.close();
+            writeProfiles();
+        }
+    }
+
+    private static final class FoldedStacks {
+        final String type;
+        final int maxStacks;
+        private Map<String, long[]> stacks = new HashMap<>();
+        private long samples;
+
+        FoldedStacks(String type, int maxStacks) {
+            this.type = type;
+            this.maxStacks = Math.max(1, maxStacks);
+        }
+
+        synchronized void add(String stack, long weight) {
+            long[] total = stacks.get(stack);
+            if (total == null) {
+                total = stacks.computeIfAbsent(stacks.size() < maxStacks ? stack : OTHER_STACK, k -> new long[1]);
+            }
+            total[0] += weight;
+            samples++;
+        }
+
+        synchronized Snapshot drain() {
+            Snapshot snapshot = new Snapshot(stacks, samples);
+            stacks = new HashMap<>();
+            samples = 0;
+            return snapshot;
+        }
+
+        static final class Snapshot {
+            final Map<String, long[]> stacks;
+            final long samples;
+
+            Snapshot(Map<String, long[]> stacks, long samples) {
+                this.stacks = stacks;
+                this.samples = samples;
+            }
+        }
+    }
+}
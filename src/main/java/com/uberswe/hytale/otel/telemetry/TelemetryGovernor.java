@@ -0,0 +1,170 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.uberswe.hytale.otel.config.PluginConfig;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableDoubleGauge;
+import io.opentelemetry.api.metrics.ObservableLongGauge;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.logging.Level;
+
+/**
+ * Sheds instrumentation in stages while the server is over its tick budget.
+ *
+ * Every evaluation interval the governor compares two loads against their budgets:
+ * the mean time spent in a tick by the slowest world (or how long its current tick
+ * has been running, if longer), and the time spent in the plugin's own handlers as
+ * a share of wall time. The worse of the two ratios is the load. After
+ * {@code escalateAfter} consecutive evaluations over budget the level goes up by one;
+ * after {@code recoverAfter} consecutive evaluations below {@code recoverRatio} of the
+ * budgets it comes back down by one. Loads in between hold the current level, so the
+ * governor does not flap around the budget.
+ *
+ * The governor only decides the level; the listener applies it.
+ */
+public class TelemetryGovernor {
+    public static final int LEVEL_FULL = 0;
+    public static final int LEVEL_NO_TRACING = 1;
+    public static final int LEVEL_SAMPLED_BLOCKS = 2;
+    public static final int LEVEL_NO_LOCATION = 3;
+    public static final int LEVEL_SLOW_EXPORT = 4;
+
+    private static final String[] LEVEL_NAMES = {
+            "full", "no_tracing", "sampled_blocks", "no_location", "slow_export"
+    };
+    private static final AttributeKey<String> LEVEL = AttributeKey.stringKey("governor.level");
+    private static final AttributeKey<String> DIRECTION = AttributeKey.stringKey("direction");
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final PluginConfig.GovernorConfig governorConfig;
+    private final HytaleLogger logger;
+    private final TickMetrics tickMetrics;
+    private final HandlerTimings handlerTimings;
+    private final IntConsumer listener;
+    private final int maxLevel;
+    private final long tickBudgetNanos;
+
+    private final LongCounter changes;
+    private final ObservableLongGauge levelGauge;
+    private final ObservableDoubleGauge loadGauge;
+
+    private volatile int level = LEVEL_FULL;
+    private volatile double load;
+
+    // Evaluation state; only touched by the scheduler thread
+    private int overBudget;
+    private int underBudget;
+    private long lastEvaluation;
+    private long lastHandlerNanos;
+    private ScheduledFuture<?> task;
+
+    /**
+     * @param tickMetrics    source of tick durations, or null to govern on handler time only
+     * @param handlerTimings source of plugin handler time
+     * @param listener       applies a new level; called on the scheduler thread
+     */
+    public TelemetryGovernor(PluginConfig.GovernorConfig governorConfig, Meter meter, HytaleLogger logger,
+                             TickMetrics tickMetrics, HandlerTimings handlerTimings, IntConsumer listener) {
+        this.governorConfig = governorConfig;
+        this.logger = logger;
+        this.tickMetrics = tickMetrics;
+        this.handlerTimings = handlerTimings;
+        this.listener = listener;
+        this.maxLevel = Math.max(LEVEL_FULL, Math.min(LEVEL_SLOW_EXPORT, governorConfig.getMaxLevel()));
+        this.tickBudgetNanos = governorConfig.getTickBudgetMs() * 1_000_000L;
+
+        changes = meter.counterBuilder("hotel_c.self.governor.changes")
+                .setDescription("Telemetry governor level changes, by target governor.level and direction")
+                .setUnit("{changes}")
+                .build();
+        levelGauge = meter.gaugeBuilder("hotel_c.self.governor.level")
+                .setDescription("Current telemetry governor level; 0 is full instrumentation")
+                .setUnit("{level}")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(level));
+        loadGauge = meter.gaugeBuilder("hotel_c.self.governor.load")
+                .setDescription("Load at the last governor evaluation, as a ratio of the budget")
+                .setUnit("1")
+                .buildWithCallback(measurement -> measurement.record(load));
+    }
+
+    public void start(ScheduledExecutorService scheduler) {
+        lastEvaluation = System.nanoTime();
+        lastHandlerNanos = handlerTimings.getTotalNanos();
+        if (tickMetrics != null) {
+            // Discard ticks from before the governor started
+            tickMetrics.pollSlowestMeanTickNanos(lastEvaluation);
+        }
+        long interval = Math.max(100, governorConfig.getEvaluationIntervalMs());
+        task = scheduler.scheduleAtFixedRate(this::evaluate, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void evaluate() {
+        try {
+            long now = System.nanoTime();
+            long elapsed = now - lastEvaluation;
+            lastEvaluation = now;
+
+            long meanTick = tickMetrics != null ? tickMetrics.pollSlowestMeanTickNanos(now) : 0;
+            long handlerNanos = handlerTimings.getTotalNanos();
+            double handlerPercent = elapsed > 0 ? (handlerNanos - lastHandlerNanos) * 100.0 / elapsed : 0;
+            lastHandlerNanos = handlerNanos;
+
+            double tickLoad = tickBudgetNanos > 0 ? (double) meanTick / tickBudgetNanos : 0;
+            double handlerBudget = governorConfig.getHandlerBudgetPercent();
+            double handlerLoad = handlerBudget > 0 ? handlerPercent / handlerBudget : 0;
+            double current = Math.max(tickLoad, handlerLoad);
+            load = current;
+
+            if (current > 1.0) {
+                underBudget = 0;
+                if (++overBudget >= governorConfig.getEscalateAfter() && level < maxLevel) {
+                    overBudget = 0;
+                    change(level + 1, meanTick, handlerPercent);
+                }
+            } else if (current < governorConfig.getRecoverRatio()) {
+                overBudget = 0;
+                if (++underBudget >= governorConfig.getRecoverAfter() && level > LEVEL_FULL) {
+                    underBudget = 0;
+                    change(level - 1, meanTick, handlerPercent);
+                }
+            } else {
+                overBudget = 0;
+                underBudget = 0;
+            }
+        } catch (RuntimeException e) {
+            // Keep evaluating; an exception would cancel the scheduled task
+            logger.at(Level.WARNING).withCause(e).log("Telemetry governor evaluation failed");
+        }
+    }
+
+    private void change(int newLevel, long meanTick, double handlerPercent) {
+        boolean shedding = newLevel > level;
+        level = newLevel;
+        listener.accept(newLevel);
+        changes.add(1, Attributes.of(LEVEL, LEVEL_NAMES[newLevel], DIRECTION, shedding ? "down" : "up"));
+        logger.at(shedding ? Level.WARNING : Level.INFO).log(String.format(
+                "HOTEL C: Telemetry governor %s to level %d (%s): slowest world tick %.1f ms, handler time %.2f%%",
+                shedding ? "stepped down" : "restored", newLevel, LEVEL_NAMES[newLevel],
+                meanTick / NANOS_PER_MILLI, handlerPercent));
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public void close() {
+        if (task != null) {
+            task.cancel(false);
+        }
+        levelGauge.close();
+        loadGauge.close();
+    }
+}
@@ -1,13 +1,28 @@
 package com.uberswe.hytale.otel.telemetry;
 
+import com.uberswe.hytale.otel.config.ConfigDiff;
 import com.uberswe.hytale.otel.config.PluginConfig;
+import com.uberswe.hytale.otel.export.ConfiguredTemporalitySelector;
+import com.uberswe.hytale.otel.export.DiskSpool;
+import com.uberswe.hytale.otel.export.ExportTimer;
+import com.uberswe.hytale.otel.export.FilteringMetricExporter;
+import com.uberswe.hytale.otel.export.CardinalityTrackingMetricExporter;
+import com.uberswe.hytale.otel.export.PrometheusScrapeReader;
+import com.uberswe.hytale.otel.export.ReaderScheduler;
+import com.uberswe.hytale.otel.export.SpoolReplayer;
+import com.uberswe.hytale.otel.export.SpoolingMetricExporter;
+import com.uberswe.hytale.otel.export.SpoolingSpanExporter;
+import com.uberswe.hytale.otel.export.ThrottlingMetricExporter;
+import com.uberswe.hytale.otel.export.TimedMetricExporter;
+import com.uberswe.hytale.otel.export.TimedSpanExporter;
 import com.hypixel.hytale.logger.HytaleLogger;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
 import io.opentelemetry.api.metrics.LongCounter;
-import io.opentelemetry.api.metrics.LongUpDownCounter;
 import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongCounter;
 import io.opentelemetry.api.metrics.ObservableLongGauge;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.exporter.otlp.http.metrics.OtlpHttpMetricExporter;
@@ -15,6 +30,12 @@ import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
 import io.opentelemetry.exporter.otlp.metrics.OtlpGrpcMetricExporter;
 import io.opentelemetry.exporter.otlp.trace.OtlpGrpcSpanExporter;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.metrics.Aggregation;
+import io.opentelemetry.sdk.metrics.InstrumentSelector;
+import io.opentelemetry.sdk.metrics.SdkMeterProviderBuilder;
+import io.opentelemetry.sdk.metrics.View;
+import io.opentelemetry.sdk.metrics.export.AggregationTemporalitySelector;
+import io.opentelemetry.sdk.metrics.export.CardinalityLimitSelector;
 import io.opentelemetry.sdk.metrics.export.MetricExporter;
 import io.opentelemetry.sdk.metrics.SdkMeterProvider;
 import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
@@ -23,27 +44,66 @@ import io.opentelemetry.sdk.trace.SdkTracerProvider;
 import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
 import io.opentelemetry.sdk.trace.samplers.Sampler;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.logging.Level;
+import java.util.regex.Pattern;
 
 /**
  * Manages OpenTelemetry SDK initialization and provides access to metrics and tracing.
  */
 public class TelemetryManager {
     private static final String INSTRUMENTATION_SCOPE = "hotel-c";
+    private static final String SESSION_DURATION = "hytale.players.session.duration";
+    private static final String EXPORT_DURATION = "hotel_c.self.export.duration";
+    // Instrument scope of the BatchSpanProcessor's own metrics
+    private static final String SDK_TRACE_SCOPE = "io.opentelemetry.sdk.trace";
+    private static final List<Double> PAUSE_BUCKETS =
+            List.of(0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0);
+
+    // Event kinds published through the asynchronous pipeline
+    private static final int EVENT_BLOCK_PLACED = 0;
+    private static final int EVENT_BLOCK_BROKEN = 1;
+    private static final int EVENT_BLOCK_INTERACTION = 2;
+    // Sampled events carry their weight above the kind
+    private static final int EVENT_WEIGHT_SHIFT = 8;
+    private static final int EVENT_KIND_MASK = (1 << EVENT_WEIGHT_SHIFT) - 1;
+
+    // Reload paths accepted at runtime besides the fixed ones in reloadRejection
+    private static final Pattern READER_INTERVAL = Pattern.compile("metrics\\.readers\\[\\d+]\\.exportIntervalMs");
+    private static final String OFF_AT_STARTUP = "was off at startup";
+
+    private static final AttributeKey<String> LOSS_REASON = AttributeKey.stringKey("reason");
+    private static final AttributeKey<String> METRIC_NAME = AttributeKey.stringKey("metric");
 
     private final HytaleLogger logger;
+    private final MetricViews metricViews;
     private final PluginConfig config;
+    private final Path dataDirectory;
 
     private OpenTelemetrySdk openTelemetry;
     private Meter meter;
     private Tracer tracer;
 
     // Player metrics
-    private LongUpDownCounter playerCount;
+    private PlayerRegistry playerRegistry;
     private LongCounter playerConnections;
     private LongCounter playerDisconnections;
+    private DoubleHistogram sessionDuration;
+    private PlayerSessions playerSessions;
+    private JoinLatencyTracker joinLatency;
+    private UniquePlayerTracker uniquePlayers;
 
     // Block metrics
     private LongCounter blocksPlaced;
@@ -53,19 +113,80 @@ public class TelemetryManager {
     // World metrics
     private LongCounter worldsLoaded;
     private LongCounter worldsUnloaded;
+    private ChunkMetrics chunkMetrics;
 
     // Server metrics
     private ObservableLongGauge memoryUsed;
     private ObservableLongGauge memoryMax;
     private ObservableLongGauge uptime;
+    private TickMetrics tickMetrics;
+    private JvmMetrics jvmMetrics;
+    private JfrBridge jfrBridge;
+    private StackProfiler stackProfiler;
+    private LagSpikeRecorder lagSpikeRecorder;
+    private GaugeSampler gaugeSampler;
 
     private final long startTime;
-    private volatile int currentPlayerCount = 0;
 
-    public TelemetryManager(HytaleLogger logger, PluginConfig config) {
+    private final SpatialBucketer spatialBucketer;
+    private final BlockAttributeCache blockAttributeCache;
+    private final TopKLabeler blockTypeLabels;
+    private final TopKLabeler heldItemLabels;
+    private BlockOperationTracer blockOperationTracer;
+
+    // Shared single-threaded scheduler for periodic housekeeping tasks
+    private ScheduledExecutorService scheduler;
+
+    // Optional asynchronous pipeline between event handlers and the meters
+    private EventRingBuffer eventPipeline;
+    private ObservableLongCounter pipelineLost;
+
+    // Optional disk spool for exports that fail while the endpoint is unreachable
+    private DiskSpool spool;
+    private SpoolReplayer spoolReplayer;
+    private ObservableLongGauge spoolSize;
+    private ObservableLongCounter spoolEvicted;
+
+    // Overflow series produced by the cardinality limit
+    private final List<CardinalityTrackingMetricExporter> cardinalityTrackers = new ArrayList<>();
+    private ObservableLongGauge cardinalityOverflowing;
+
+    // Plugin overhead
+    private final ExportTimer metricsExportTimer = new ExportTimer("metrics");
+    private final ExportTimer tracesExportTimer = new ExportTimer("traces");
+    private HandlerTimings handlerTimings;
+    private ObservableLongCounter exportFailures;
+    private ObservableLongGauge seriesCount;
+    private ObservableLongGauge sessionsOpen;
+
+    // Load shedding; the volatile fields are the current governor level applied
+    private TelemetryGovernor governor;
+    private volatile boolean tracingShed;
+    private volatile int blockSampleEvery = 1;
+    private volatile int exportStride = 1;
+
+    // Settings that can change on a config reload
+    private PluginConfig appliedConfig;
+    private volatile Toggles toggles;
+    private ReloadableSampler reloadableSampler;
+    private ReaderScheduler readerScheduler;
+
+    public TelemetryManager(HytaleLogger logger, PluginConfig config, Path dataDirectory) {
         this.logger = logger;
+        this.metricViews = new MetricViews(logger);
         this.config = config;
+        this.dataDirectory = dataDirectory;
         this.startTime = System.currentTimeMillis();
+        this.spatialBucketer = new SpatialBucketer(config.getMetrics().getBlockMetrics().getSpatialAggregation());
+        this.blockAttributeCache = new BlockAttributeCache(spatialBucketer,
+                config.getMetrics().getBlockMetrics().getAttributeCacheSize());
+        var topK = config.getMetrics().getBlockMetrics().getTopK();
+        this.blockTypeLabels = new TopKLabeler(topK.isEnabled() ? topK.getBlockTypes() : 0,
+                topK.getEvictAfterWindows());
+        this.heldItemLabels = new TopKLabeler(topK.isEnabled() ? topK.getHeldItems() : 0,
+                topK.getEvictAfterWindows());
+        this.appliedConfig = config;
+        this.toggles = new Toggles(config);
     }
 
     /**
@@ -82,30 +203,110 @@ public class TelemetryManager {
                 .putAll(buildCustomAttributes())
                 .build();
 
+        if (config.getOtlp().getSpool().isEnabled()) {
+            openSpool();
+        }
+
         // Build OpenTelemetry SDK
         var builder = OpenTelemetrySdk.builder();
 
+        if (config.isHotReload()) {
+            readerScheduler = new ReaderScheduler();
+        }
+
         // Configure metrics if enabled
+        SdkMeterProvider meterProvider = null;
         if (config.getMetrics().isEnabled()) {
-            SdkMeterProvider meterProvider = buildMeterProvider(resource);
+            meterProvider = buildMeterProvider(resource);
             builder.setMeterProvider(meterProvider);
         }
 
         // Configure tracing if enabled
         if (config.getTracing().isEnabled()) {
-            SdkTracerProvider tracerProvider = buildTracerProvider(resource);
+            SdkTracerProvider tracerProvider = buildTracerProvider(resource, meterProvider);
             builder.setTracerProvider(tracerProvider);
         }
 
         openTelemetry = builder.buildAndRegisterGlobal();
 
+        if (spool != null) {
+            startSpoolReplay();
+        }
+
         // Get meter and tracer
         meter = openTelemetry.getMeter(INSTRUMENTATION_SCOPE);
         tracer = openTelemetry.getTracer(INSTRUMENTATION_SCOPE);
 
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hotel-c-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (readerScheduler != null) {
+            readerScheduler.start(scheduler);
+        }
+
         // Initialize metrics instruments
         initializeMetrics();
 
+        boolean traceSessions = config.getTracing().isEnabled() && config.getTracing().isTracePlayerSessions();
+        if (traceSessions || sessionDuration != null) {
+            playerSessions = new PlayerSessions(traceSessions ? tracer : null, sessionDuration,
+                    config.getTracing().getSessionSegmentDurationMs());
+            playerSessions.start(scheduler);
+        }
+
+        if (uniquePlayers != null) {
+            startUniquePlayers();
+        }
+
+        if (blockTypeLabels.isEnabled() || heldItemLabels.isEnabled()) {
+            var topK = config.getMetrics().getBlockMetrics().getTopK();
+            long windowMs = Math.max(1000, topK.getWindowMs());
+            scheduler.scheduleAtFixedRate(() -> {
+                blockTypeLabels.rollover();
+                heldItemLabels.rollover();
+            }, windowMs, windowMs, TimeUnit.MILLISECONDS);
+            logger.at(Level.INFO).log(String.format("Block types capped to the top %d and held items to the top %d per %d ms window",
+                    topK.getBlockTypes(), topK.getHeldItems(), windowMs));
+        }
+
+        if (config.getTracing().isEnabled() && config.getTracing().isTraceBlockOperations()) {
+            blockOperationTracer = new BlockOperationTracer(tracer, config.getTracing().getMaxBlockEventsPerTick());
+        }
+
+        if (config.getFlightRecorder().isEnabled()) {
+            lagSpikeRecorder = new LagSpikeRecorder(config.getFlightRecorder(), dataDirectory.resolve("spikes"),
+                    logger, config.getTracing().isEnabled() ? tracer : null, scheduler);
+            lagSpikeRecorder.start();
+            logger.at(Level.INFO).log(String.format("Lag spike recorder armed for ticks over %d ms",
+                    config.getFlightRecorder().getTickThresholdMs()));
+        }
+
+        if (config.getMetrics().isEnabled() && config.getMetrics().getPipeline().isEnabled()) {
+            startEventPipeline();
+        }
+
+        if (config.getMetrics().isEnabled() && config.getMetrics().getServerMetrics().isEnabled()
+                && config.getMetrics().getServerMetrics().getJfr().isEnabled()) {
+            startJfrBridge();
+        }
+
+        if (config.getProfiler().isEnabled()) {
+            startProfiler();
+        }
+
+        if (config.getGovernor().isEnabled()) {
+            startGovernor();
+        }
+
+        var samplerConfig = config.getMetrics().getServerMetrics().getSampler();
+        if (config.getMetrics().isEnabled() && config.getMetrics().getServerMetrics().isEnabled()
+                && samplerConfig.isEnabled()) {
+            startGaugeSampler(samplerConfig);
+        }
+
         logger.at(Level.INFO).log("OpenTelemetry initialized successfully");
     }
 
@@ -132,6 +333,139 @@ public class TelemetryManager {
     }
 
     private SdkMeterProvider buildMeterProvider(Resource resource) {
+        var prometheusConfig = config.getMetrics().getPrometheus();
+        boolean replaceOtlp = prometheusConfig.isEnabled() && "replace".equalsIgnoreCase(prometheusConfig.getMode());
+
+        var providerBuilder = SdkMeterProvider.builder()
+                .setResource(resource);
+
+        // Configured views replace the built-in view of an instrument they name exactly
+        Set<String> configuredViews = metricViews.register(providerBuilder, config.getMetrics().getViews());
+        if (!configuredViews.contains(TickMetrics.TICK_DURATION)) {
+            // Tick latency needs sub-millisecond resolution across several orders of magnitude
+            providerBuilder.registerView(
+                    InstrumentSelector.builder().setName(TickMetrics.TICK_DURATION).build(),
+                    View.builder().setAggregation(Aggregation.base2ExponentialBucketHistogram(160, 20)).build());
+        }
+        // GC pauses, JFR stalls and exports take milliseconds, the worst of them seconds
+        List<String> pauseHistograms = new ArrayList<>(JfrBridge.HISTOGRAMS);
+        pauseHistograms.add(JvmMetrics.GC_DURATION);
+        pauseHistograms.add(EXPORT_DURATION);
+        for (String pauseHistogram : pauseHistograms) {
+            if (!configuredViews.contains(pauseHistogram)) {
+                providerBuilder.registerView(
+                        InstrumentSelector.builder().setName(pauseHistogram).build(),
+                        View.builder().setAggregation(Aggregation.explicitBucketHistogram(PAUSE_BUCKETS)).build());
+            }
+        }
+        if (!configuredViews.contains(JoinLatencyTracker.JOIN_DURATION)) {
+            // Joins take from under a second to a couple of minutes on a cold world
+            providerBuilder.registerView(
+                    InstrumentSelector.builder().setName(JoinLatencyTracker.JOIN_DURATION).build(),
+                    View.builder().setAggregation(Aggregation.explicitBucketHistogram(
+                            List.of(0.5, 1.0, 2.0, 3.0, 5.0, 7.5, 10.0, 15.0, 20.0, 30.0, 60.0, 120.0))).build());
+        }
+        if (!configuredViews.contains(SESSION_DURATION)) {
+            // Sessions last minutes to hours, well past the default bucket boundaries
+            providerBuilder.registerView(
+                    InstrumentSelector.builder().setName(SESSION_DURATION).build(),
+                    View.builder().setAggregation(Aggregation.explicitBucketHistogram(
+                            List.of(60.0, 300.0, 900.0, 1800.0, 3600.0, 7200.0, 14400.0, 28800.0))).build());
+        }
+
+        if (config.getMetrics().isSelfMetrics()) {
+            // The BatchSpanProcessor reports its queue under generic names; file them with the other self metrics
+            providerBuilder.registerView(
+                    InstrumentSelector.builder().setMeterName(SDK_TRACE_SCOPE).setName("queueSize").build(),
+                    View.builder().setName("hotel_c.self.span_processor.queue.size").build());
+            providerBuilder.registerView(
+                    InstrumentSelector.builder().setMeterName(SDK_TRACE_SCOPE).setName("processedSpans").build(),
+                    View.builder().setName("hotel_c.self.span_processor.spans").build());
+        }
+
+        // Attribute sets beyond the limit are folded into one otel.metric.overflow series per instrument
+        int cardinalityLimit = config.getMetrics().getCardinalityLimit();
+        CardinalityLimitSelector cardinalityLimits = cardinalityLimit > 0
+                ? instrumentType -> cardinalityLimit
+                : CardinalityLimitSelector.defaultCardinalityLimitSelector();
+
+        if (!replaceOtlp) {
+            var temporalitySelector = new ConfiguredTemporalitySelector(config.getMetrics().getTemporality());
+            for (String invalid : temporalitySelector.getInvalidEntries()) {
+                logger.at(Level.WARNING).log(String.format("Ignoring invalid metrics.temporality entry: %s", invalid));
+            }
+
+            // One periodic reader per reader group; the default reader exports everything no group claims.
+            // Readers cannot be limited to some instruments, and the instruments share one meter (batch
+            // callbacks span groups), so each group reader keeps its own storage of every instrument and
+            // collects all of them. The selection only filters what is exported.
+            List<Predicate<String>> claimed = new ArrayList<>();
+            for (var group : config.getMetrics().getReaders()) {
+                Predicate<String> selection = FilteringMetricExporter.globs(group.getInstruments());
+                claimed.add(selection);
+                registerPeriodicReader(providerBuilder, cardinalityLimits, temporalitySelector,
+                        group.getExportIntervalMs(), selection);
+                logger.at(Level.INFO).log(String.format("Metric reader group '%s' exports %s every %d ms",
+                        group.getName(), group.getInstruments(), group.getExportIntervalMs()));
+            }
+            Predicate<String> unclaimed = name -> {
+                for (Predicate<String> selection : claimed) {
+                    if (selection.test(name)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+            registerPeriodicReader(providerBuilder, cardinalityLimits, temporalitySelector,
+                    config.getMetrics().getExportIntervalMs(), claimed.isEmpty() ? null : unclaimed);
+        }
+
+        if (prometheusConfig.isEnabled()) {
+            PrometheusScrapeReader prometheusReader = new PrometheusScrapeReader(
+                    prometheusConfig.getHost(), prometheusConfig.getPort(), prometheusConfig.getThreads());
+            try {
+                prometheusReader.start();
+                providerBuilder.registerMetricReader(prometheusReader, cardinalityLimits);
+                logger.at(Level.INFO).log(String.format("Prometheus scrape endpoint listening on %s:%d/metrics",
+                        prometheusConfig.getHost(), prometheusReader.getPort()));
+            } catch (IOException e) {
+                logger.at(Level.WARNING).withCause(e).log(String.format(
+                        "Failed to start Prometheus scrape endpoint on port %d", prometheusConfig.getPort()));
+            }
+        }
+
+        return providerBuilder.build();
+    }
+
+    /**
+     * Register a periodic OTLP reader exporting the metrics accepted by the selection (all if null).
+     */
+    private void registerPeriodicReader(SdkMeterProviderBuilder providerBuilder,
+                                        CardinalityLimitSelector cardinalityLimits,
+                                        AggregationTemporalitySelector temporalitySelector,
+                                        long exportIntervalMs, Predicate<String> selection) {
+        CardinalityTrackingMetricExporter cardinalityTracker =
+                new CardinalityTrackingMetricExporter(buildMetricExporter(temporalitySelector));
+        cardinalityTrackers.add(cardinalityTracker);
+        MetricExporter exporter = selection != null
+                ? new FilteringMetricExporter(cardinalityTracker, selection)
+                : cardinalityTracker;
+        if (config.getGovernor().isEnabled()) {
+            exporter = new ThrottlingMetricExporter(exporter, () -> exportStride);
+        }
+        // With hot reload the reader is flushed by the reader scheduler, whose intervals can change
+        PeriodicMetricReader metricReader = PeriodicMetricReader.builder(exporter)
+                .setInterval(readerScheduler != null
+                        ? ReaderScheduler.SELF_SCHEDULE_DISABLED
+                        : Duration.ofMillis(exportIntervalMs))
+                .build();
+        providerBuilder.registerMetricReader(metricReader, cardinalityLimits);
+        if (readerScheduler != null) {
+            readerScheduler.add(metricReader, exportIntervalMs);
+        }
+    }
+
+    private MetricExporter buildMetricExporter(AggregationTemporalitySelector temporalitySelector) {
         MetricExporter metricExporter;
 
         String endpoint = normalizeEndpoint(config.getOtlp().getEndpoint());
@@ -140,7 +474,8 @@ public class TelemetryManager {
             // Use HTTP/protobuf exporter
             var httpBuilder = OtlpHttpMetricExporter.builder()
                     .setEndpoint(endpoint + "/v1/metrics")
-                    .setTimeout(config.getOtlp().getTimeout(), TimeUnit.MILLISECONDS);
+                    .setTimeout(config.getOtlp().getTimeout(), TimeUnit.MILLISECONDS)
+                    .setAggregationTemporalitySelector(temporalitySelector);
 
             for (var header : config.getOtlp().getHeaders().entrySet()) {
                 httpBuilder.addHeader(header.getKey(), header.getValue());
@@ -155,7 +490,8 @@ public class TelemetryManager {
             // Use gRPC exporter (default)
             var grpcBuilder = OtlpGrpcMetricExporter.builder()
                     .setEndpoint(endpoint)
-                    .setTimeout(config.getOtlp().getTimeout(), TimeUnit.MILLISECONDS);
+                    .setTimeout(config.getOtlp().getTimeout(), TimeUnit.MILLISECONDS)
+                    .setAggregationTemporalitySelector(temporalitySelector);
 
             for (var header : config.getOtlp().getHeaders().entrySet()) {
                 grpcBuilder.addHeader(header.getKey(), header.getValue());
@@ -168,17 +504,18 @@ public class TelemetryManager {
             metricExporter = grpcBuilder.build();
         }
 
-        PeriodicMetricReader metricReader = PeriodicMetricReader.builder(metricExporter)
-                .setInterval(Duration.ofMillis(config.getMetrics().getExportIntervalMs()))
-                .build();
-
-        return SdkMeterProvider.builder()
-                .setResource(resource)
-                .registerMetricReader(metricReader)
-                .build();
+        // Timed inside the spool so that only collector round trips are measured
+        metricExporter = new TimedMetricExporter(metricExporter, metricsExportTimer);
+        if (spool != null) {
+            metricExporter = new SpoolingMetricExporter(metricExporter, spool);
+        }
+        return metricExporter;
     }
 
-    private SdkTracerProvider buildTracerProvider(Resource resource) {
+    /**
+     * @param meterProvider meter provider for the span processor's queue metrics, or null
+     */
+    private SdkTracerProvider buildTracerProvider(Resource resource, SdkMeterProvider meterProvider) {
         io.opentelemetry.sdk.trace.export.SpanExporter spanExporter;
 
         String endpoint = normalizeEndpoint(config.getOtlp().getEndpoint());
@@ -215,27 +552,119 @@ public class TelemetryManager {
             spanExporter = grpcBuilder.build();
         }
 
+        spanExporter = new TimedSpanExporter(spanExporter, tracesExportTimer);
+        if (spool != null) {
+            spanExporter = new SpoolingSpanExporter(spanExporter, spool);
+        }
+
         // Configure sampler based on sample rate
-        Sampler sampler = config.getTracing().getSampleRate() >= 1.0
-                ? Sampler.alwaysOn()
-                : Sampler.traceIdRatioBased(config.getTracing().getSampleRate());
+        Sampler sampler = buildSampler(config.getTracing().getSampleRate());
+        if (config.isHotReload()) {
+            reloadableSampler = new ReloadableSampler(sampler);
+            sampler = reloadableSampler;
+        }
+        if (config.getGovernor().isEnabled()) {
+            sampler = new SheddingSampler(sampler, () -> tracingShed);
+        }
+
+        var spanProcessor = BatchSpanProcessor.builder(spanExporter);
+        if (meterProvider != null && config.getMetrics().isSelfMetrics()) {
+            spanProcessor.setMeterProvider(meterProvider);
+        }
 
         return SdkTracerProvider.builder()
                 .setResource(resource)
-                .addSpanProcessor(BatchSpanProcessor.builder(spanExporter).build())
+                .addSpanProcessor(spanProcessor.build())
                 .setSampler(sampler)
                 .build();
     }
 
+    private static Sampler buildSampler(double sampleRate) {
+        return sampleRate >= 1.0 ? Sampler.alwaysOn() : Sampler.traceIdRatioBased(sampleRate);
+    }
+
+    private void openSpool() {
+        var spoolConfig = config.getOtlp().getSpool();
+        Path directory = dataDirectory.resolve("spool");
+        try {
+            spool = DiskSpool.open(directory, spoolConfig.getMaxSizeMb() * 1024 * 1024,
+                    spoolConfig.getSegmentSizeMb() * 1024 * 1024);
+            logger.at(Level.INFO).log(String.format("Export spool enabled at %s (%d MB max)",
+                    directory, spoolConfig.getMaxSizeMb()));
+        } catch (IOException | RuntimeException e) {
+            logger.at(Level.WARNING).withCause(e).log("Failed to open export spool, continuing without it");
+        }
+    }
+
+    private void startSpoolReplay() {
+        var spoolConfig = config.getOtlp().getSpool();
+        spoolReplayer = new SpoolReplayer(spool, logger, resolveReplayEndpoint(), config.getOtlp().getHeaders(),
+                config.getOtlp().getTimeout(), "gzip".equalsIgnoreCase(config.getOtlp().getCompression()));
+        spoolReplayer.start(spoolConfig.getReplayIntervalMs());
+    }
+
+    /**
+     * Spooled requests are replayed over OTLP/HTTP. With the gRPC protocol the collector's
+     * HTTP receiver is assumed to be on the standard port unless replayEndpoint is set.
+     */
+    private String resolveReplayEndpoint() {
+        String replayEndpoint = config.getOtlp().getSpool().getReplayEndpoint();
+        if (replayEndpoint != null && !replayEndpoint.isBlank()) {
+            return stripTrailingSlash(normalizeEndpoint(replayEndpoint));
+        }
+        String endpoint = stripTrailingSlash(normalizeEndpoint(config.getOtlp().getEndpoint()));
+        if ("http".equalsIgnoreCase(config.getOtlp().getProtocol())) {
+            return endpoint;
+        }
+        URI uri = URI.create(endpoint);
+        if (uri.getPort() == 4317) {
+            return uri.getScheme() + "://" + uri.getHost() + ":4318";
+        }
+        return endpoint;
+    }
+
+    private static String stripTrailingSlash(String endpoint) {
+        return endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+    }
+
     private void initializeMetrics() {
         var metricsConfig = config.getMetrics();
 
+        if (!cardinalityTrackers.isEmpty()) {
+            cardinalityOverflowing = meter.gaugeBuilder("hotel_c.self.cardinality.overflowing")
+                    .setDescription("1 if the latest export of the metric held an overflow series for attribute sets"
+                            + " beyond the cardinality limit, 0 if it no longer does")
+                    .setUnit("1")
+                    .ofLongs()
+                    .buildWithCallback(measurement -> {
+                        // Reader groups export disjoint sets of metrics, so each name is reported once
+                        for (CardinalityTrackingMetricExporter cardinalityTracker : cardinalityTrackers) {
+                            cardinalityTracker.forEachOverflow((name, overflowed) ->
+                                    measurement.record(overflowed ? 1 : 0, Attributes.of(METRIC_NAME, name)));
+                        }
+                    });
+        }
+
+        if (metricsConfig.isSelfMetrics()) {
+            initializeSelfMetrics();
+        }
+
+        if (spool != null) {
+            spoolSize = meter.gaugeBuilder("hotel_c.self.spool.size")
+                    .setDescription("Bytes of export requests waiting in the disk spool")
+                    .setUnit("By")
+                    .ofLongs()
+                    .buildWithCallback(measurement -> measurement.record(spool.sizeBytes()));
+
+            spoolEvicted = meter.counterBuilder("hotel_c.self.spool.evicted")
+                    .setDescription("Spooled export requests dropped because the spool was full")
+                    .setUnit("{requests}")
+                    .buildWithCallback(measurement -> measurement.record(spool.getEvicted()));
+        }
+
         // Player metrics
         if (metricsConfig.getPlayerMetrics().isEnabled()) {
-            playerCount = meter.upDownCounterBuilder("hytale.players.count")
-                    .setDescription("Current number of online players")
-                    .setUnit("{players}")
-                    .build();
+            playerRegistry = new PlayerRegistry(meter);
 
             if (metricsConfig.getPlayerMetrics().isTrackConnections()) {
                 playerConnections = meter.counterBuilder("hytale.players.connections")
@@ -248,6 +677,22 @@ public class TelemetryManager {
                         .setUnit("{disconnections}")
                         .build();
             }
+
+            if (metricsConfig.getPlayerMetrics().isTrackJoinLatency()) {
+                joinLatency = new JoinLatencyTracker(meter);
+            }
+
+            if (metricsConfig.getPlayerMetrics().getUniquePlayers().isEnabled()) {
+                uniquePlayers = new UniquePlayerTracker(meter,
+                        metricsConfig.getPlayerMetrics().getUniquePlayers().getPrecision());
+            }
+
+            if (metricsConfig.getPlayerMetrics().isTrackSessions()) {
+                sessionDuration = meter.histogramBuilder(SESSION_DURATION)
+                        .setDescription("Duration of completed player sessions")
+                        .setUnit("s")
+                        .build();
+            }
         }
 
         // Block metrics
@@ -287,10 +732,19 @@ public class TelemetryManager {
                         .setUnit("{worlds}")
                         .build();
             }
+
+            if (metricsConfig.getWorldMetrics().isTrackChunkLoading()) {
+                chunkMetrics = new ChunkMetrics(meter);
+            }
         }
 
         // Server metrics
         if (metricsConfig.getServerMetrics().isEnabled()) {
+            if (metricsConfig.getServerMetrics().isTrackTps()) {
+                tickMetrics = new TickMetrics(meter, shortestExportIntervalMs());
+                tickMetrics.start(scheduler);
+            }
+
             if (metricsConfig.getServerMetrics().isTrackMemory()) {
                 memoryUsed = meter.gaugeBuilder("hytale.server.memory.used")
                         .setDescription("JVM heap memory used")
@@ -310,6 +764,8 @@ public class TelemetryManager {
                         });
             }
 
+            jvmMetrics = new JvmMetrics(meter, metricsConfig.getServerMetrics());
+
             if (metricsConfig.getServerMetrics().isTrackUptime()) {
                 uptime = meter.gaugeBuilder("hytale.server.uptime")
                         .setDescription("Server uptime in seconds")
@@ -322,67 +778,592 @@ public class TelemetryManager {
         }
     }
 
+    private void initializeSelfMetrics() {
+        handlerTimings = new HandlerTimings(meter);
+
+        DoubleHistogram exportDuration = meter.histogramBuilder(EXPORT_DURATION)
+                .setDescription("Time taken by OTLP exports to the collector, by signal")
+                .setUnit("s")
+                .build();
+        metricsExportTimer.bind(exportDuration);
+        tracesExportTimer.bind(exportDuration);
+
+        exportFailures = meter.counterBuilder("hotel_c.self.export.failures")
+                .setDescription("OTLP exports that failed, by signal")
+                .setUnit("{exports}")
+                .buildWithCallback(measurement -> {
+                    measurement.record(metricsExportTimer.getFailures(), metricsExportTimer.getAttributes());
+                    measurement.record(tracesExportTimer.getFailures(), tracesExportTimer.getAttributes());
+                });
+
+        seriesCount = meter.gaugeBuilder("hotel_c.self.series")
+                .setDescription("Series in the latest OTLP export of each metric")
+                .setUnit("{series}")
+                .ofLongs()
+                .buildWithCallback(measurement -> {
+                    for (CardinalityTrackingMetricExporter exporter : cardinalityTrackers) {
+                        exporter.forEachSeriesCount((name, count) ->
+                                measurement.record(count, Attributes.of(METRIC_NAME, name)));
+                    }
+                });
+
+        sessionsOpen = meter.gaugeBuilder("hotel_c.self.sessions.open")
+                .setDescription("Player sessions currently tracked")
+                .setUnit("{sessions}")
+                .ofLongs()
+                .buildWithCallback(measurement -> {
+                    PlayerSessions sessions = playerSessions;
+                    if (sessions != null) {
+                        measurement.record(sessions.size());
+                    }
+                });
+    }
+
+    private long shortestExportIntervalMs() {
+        long shortest = config.getMetrics().getExportIntervalMs();
+        for (var group : config.getMetrics().getReaders()) {
+            shortest = Math.min(shortest, group.getExportIntervalMs());
+        }
+        return shortest;
+    }
+
+    private void startJfrBridge() {
+        jfrBridge = new JfrBridge(meter, config.getMetrics().getServerMetrics().getJfr());
+        try {
+            if (jfrBridge.start()) {
+                logger.at(Level.INFO).log("JFR event streaming enabled");
+            } else {
+                logger.at(Level.WARNING).log("JFR event streaming requested but Flight Recorder is not available");
+            }
+        } catch (RuntimeException e) {
+            logger.at(Level.WARNING).withCause(e).log("Failed to start JFR event streaming");
+        }
+    }
+
+    private void startProfiler() {
+        var profilerConfig = config.getProfiler();
+        boolean emitSpans = config.getTracing().isEnabled() && profilerConfig.isEmitSpans();
+        Path directory = dataDirectory.resolve("profiles");
+        stackProfiler = new StackProfiler(profilerConfig, directory, logger, emitSpans ? tracer : null);
+        try {
+            if (stackProfiler.start(scheduler)) {
+                logger.at(Level.INFO).log(String.format("Profiler writing collapsed stacks to %s every %d ms",
+                        directory, profilerConfig.getWriteIntervalMs()));
+            } else {
+                logger.at(Level.WARNING).log("Profiler requested but Flight Recorder is not available");
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.at(Level.WARNING).withCause(e).log("Failed to start profiler");
+        }
+    }
+
+    private void startGaugeSampler(PluginConfig.GaugeSamplerConfig samplerConfig) {
+        long windowMs = samplerConfig.getWindowMs() > 0 ? samplerConfig.getWindowMs() : shortestExportIntervalMs();
+        gaugeSampler = new GaugeSampler(meter, samplerConfig.getSampleIntervalMs(), windowMs);
+
+        if (samplerConfig.isSampleHeapUsed()) {
+            gaugeSampler.add("hytale.server.memory.used.sampled", "JVM heap memory used, sampled between exports",
+                    "By", 1, () -> {
+                        Runtime runtime = Runtime.getRuntime();
+                        return runtime.totalMemory() - runtime.freeMemory();
+                    });
+        }
+        if (samplerConfig.isSampleTickTime() && tickMetrics != null) {
+            TickMetrics ticks = tickMetrics;
+            gaugeSampler.add("hytale.server.tick.sampled", "Longest current tick across worlds, sampled between exports",
+                    "s", 1e-9, () -> ticks.getLongestTickNanos(System.nanoTime()));
+        }
+        if (samplerConfig.isSamplePlayerCount() && playerRegistry != null) {
+            PlayerRegistry players = playerRegistry;
+            gaugeSampler.add("hytale.players.count.sampled", "Online players, sampled between exports",
+                    "{players}", 1, players::size);
+        }
+
+        gaugeSampler.start(scheduler);
+        logger.at(Level.INFO).log(String.format("Gauge sampler enabled (every %d ms over a %d ms window)",
+                samplerConfig.getSampleIntervalMs(), windowMs));
+    }
+
+    /**
+     * Restore the unique player sketches and keep them fed with online players. The
+     * sketches are saved on every refresh and on shutdown when persistence is enabled.
+     */
+    private void startUniquePlayers() {
+        boolean persist = config.getMetrics().getPlayerMetrics().getUniquePlayers().isPersist();
+        if (persist) {
+            try {
+                if (uniquePlayers.load(uniquePlayersFile())) {
+                    logger.at(Level.INFO).log("Restored unique player estimates");
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.at(Level.WARNING).withCause(e).log("Failed to restore unique player estimates, starting empty");
+            }
+        }
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                uniquePlayers.addAll(playerRegistry.onlinePlayers(), System.currentTimeMillis());
+                if (persist) {
+                    uniquePlayers.save(uniquePlayersFile());
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.at(Level.WARNING).withCause(e).log("Failed to save unique player estimates");
+            }
+        }, UniquePlayerTracker.REFRESH_INTERVAL_MS, UniquePlayerTracker.REFRESH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private Path uniquePlayersFile() {
+        return dataDirectory.resolve("unique-players.bin");
+    }
+
+    private void startGovernor() {
+        if (handlerTimings == null) {
+            // Self metrics are off; accumulate handler time for the governor without reporting it
+            handlerTimings = new HandlerTimings(null);
+        }
+        governor = new TelemetryGovernor(config.getGovernor(), meter, logger, tickMetrics, handlerTimings,
+                this::applyGovernorLevel);
+        governor.start(scheduler);
+        logger.at(Level.INFO).log(String.format("Telemetry governor enabled (tick budget %d ms, handler budget %.1f%%)",
+                config.getGovernor().getTickBudgetMs(), config.getGovernor().getHandlerBudgetPercent()));
+    }
+
+    /**
+     * Apply a governor level. Each level keeps the reductions of the levels below it.
+     */
+    private void applyGovernorLevel(int level) {
+        var governorConfig = config.getGovernor();
+        tracingShed = level >= TelemetryGovernor.LEVEL_NO_TRACING;
+        blockSampleEvery = level >= TelemetryGovernor.LEVEL_SAMPLED_BLOCKS
+                ? Math.max(1, Math.min(EVENT_KIND_MASK, governorConfig.getBlockSampleEvery())) : 1;
+        blockAttributeCache.setLocationEnabled(level < TelemetryGovernor.LEVEL_NO_LOCATION);
+        exportStride = level >= TelemetryGovernor.LEVEL_SLOW_EXPORT
+                ? Math.max(1, governorConfig.getExportIntervalMultiplier()) : 1;
+    }
+
+    /**
+     * Weight of the next block event: 1 normally; while block metrics are sampled,
+     * one in N events is recorded with weight N and the rest with 0, so the counters
+     * stay unbiased.
+     */
+    private int blockEventWeight() {
+        int every = blockSampleEvery;
+        if (every <= 1) {
+            return 1;
+        }
+        return ThreadLocalRandom.current().nextInt(every) == 0 ? every : 0;
+    }
+
+    private void recordBlockEvent(int kind, LongCounter counter, Attributes attributes) {
+        int weight = blockEventWeight();
+        if (weight == 0) {
+            return;
+        }
+        if (eventPipeline != null) {
+            eventPipeline.publish(weight == 1 ? kind : kind | (weight << EVENT_WEIGHT_SHIFT), attributes);
+        } else {
+            counter.add(weight, attributes);
+        }
+    }
+
+    private void startEventPipeline() {
+        var pipelineConfig = config.getMetrics().getPipeline();
+        eventPipeline = EventRingBuffer.create(
+                pipelineConfig.getBufferSize(),
+                pipelineConfig.getFullBufferPolicy(),
+                pipelineConfig.getBatchSize(),
+                pipelineConfig.getDrainIntervalMs(),
+                this::drainEvent);
+
+        Attributes dropped = Attributes.of(LOSS_REASON, "dropped");
+        Attributes overwritten = Attributes.of(LOSS_REASON, "overwritten");
+        pipelineLost = meter.counterBuilder("hotel_c.self.pipeline.lost")
+                .setDescription("Events lost because the telemetry event pipeline was full")
+                .setUnit("{events}")
+                .buildWithCallback(measurement -> {
+                    measurement.record(eventPipeline.getDropped(), dropped);
+                    measurement.record(eventPipeline.getOverwritten(), overwritten);
+                });
+
+        eventPipeline.start("hotel-c-event-pipeline");
+        logger.at(Level.INFO).log(String.format("Event pipeline enabled (capacity %d, policy %s)",
+                eventPipeline.getCapacity(), pipelineConfig.getFullBufferPolicy()));
+    }
+
+    /**
+     * Record a batch of identical events drained from the pipeline.
+     */
+    private void drainEvent(int event, Attributes attributes, long count) {
+        int weight = event >>> EVENT_WEIGHT_SHIFT;
+        long total = weight > 1 ? count * weight : count;
+        switch (event & EVENT_KIND_MASK) {
+            case EVENT_BLOCK_PLACED -> blocksPlaced.add(total, attributes);
+            case EVENT_BLOCK_BROKEN -> blocksBroken.add(total, attributes);
+            case EVENT_BLOCK_INTERACTION -> blockInteractions.add(total, attributes);
+            default -> {
+            }
+        }
+    }
+
     /**
      * Shutdown the OpenTelemetry SDK gracefully.
      */
     public void shutdown() {
+        if (governor != null) {
+            governor.close();
+        }
+        if (eventPipeline != null) {
+            eventPipeline.stop();
+        }
+        if (blockOperationTracer != null) {
+            blockOperationTracer.endAll();
+        }
+        if (playerSessions != null) {
+            playerSessions.endAll("Server shutdown");
+        }
+        if (jfrBridge != null) {
+            jfrBridge.close();
+        }
+        if (stackProfiler != null) {
+            stackProfiler.stop();
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (uniquePlayers != null && config.getMetrics().getPlayerMetrics().getUniquePlayers().isPersist()) {
+            try {
+                uniquePlayers.save(uniquePlayersFile());
+            } catch (IOException | RuntimeException e) {
+                logger.at(Level.WARNING).withCause(e).log("Failed to save unique player estimates");
+            }
+        }
+        if (spoolReplayer != null) {
+            spoolReplayer.stop();
+        }
         if (openTelemetry != null) {
             logger.at(Level.INFO).log("Shutting down OpenTelemetry...");
             openTelemetry.close();
             logger.at(Level.INFO).log("OpenTelemetry shutdown complete");
         }
+        // GC listeners outlive the SDK otherwise
+        if (jvmMetrics != null) {
+            jvmMetrics.close();
+        }
+        // Closed last so that exports failing during the final flush are still spooled
+        if (spool != null) {
+            spool.close();
+        }
     }
 
     // Metrics recording methods
 
-    public void recordPlayerConnect(Attributes attributes) {
-        if (playerCount != null) {
-            currentPlayerCount++;
-            playerCount.add(1, attributes);
+    /**
+     * @param worldName world the player joins, or null if not known yet
+     */
+    public void recordPlayerConnect(UUID playerUuid, String worldName, Attributes attributes) {
+        if (playerRegistry != null) {
+            playerRegistry.onConnect(playerUuid, worldName);
         }
-        if (playerConnections != null) {
+        if (uniquePlayers != null) {
+            uniquePlayers.add(playerUuid, System.currentTimeMillis());
+        }
+        if (playerConnections != null && toggles.playerConnections) {
             playerConnections.add(1, attributes);
         }
     }
 
-    public void recordPlayerDisconnect(Attributes attributes) {
-        if (playerCount != null) {
-            currentPlayerCount--;
-            playerCount.add(-1, attributes);
+    public void recordPlayerDisconnect(UUID playerUuid, Attributes attributes) {
+        if (playerRegistry != null) {
+            playerRegistry.onDisconnect(playerUuid);
         }
-        if (playerDisconnections != null) {
+        if (playerDisconnections != null && toggles.playerConnections) {
             playerDisconnections.add(1, attributes);
         }
     }
 
+    /**
+     * Start tracking a player session: duration metric and, if enabled, session segment spans.
+     */
+    public void startPlayerSession(UUID playerUuid, String playerName) {
+        if (joinLatency != null) {
+            joinLatency.onConnect(playerUuid, System.nanoTime());
+        }
+        if (lagSpikeRecorder != null) {
+            lagSpikeRecorder.recordPlayer(LagSpikeRecorder.KIND_PLAYER_CONNECT, playerUuid);
+        }
+        if (playerSessions != null) {
+            playerSessions.onConnect(playerUuid, playerName);
+        }
+    }
+
+    /**
+     * Record that a player finished joining and is ready in a world.
+     */
+    public void recordPlayerReady(UUID playerUuid, String worldName) {
+        if (playerRegistry != null) {
+            playerRegistry.onWorldChange(playerUuid, worldName);
+        }
+        if (joinLatency != null) {
+            joinLatency.onReady(playerUuid, worldName, System.nanoTime());
+        }
+    }
+
+    /**
+     * Add an event to the player's current session segment span.
+     */
+    public void addPlayerSessionEvent(UUID playerUuid, String eventName) {
+        if (playerSessions != null) {
+            playerSessions.addEvent(playerUuid, eventName);
+        }
+    }
+
+    public void endPlayerSession(UUID playerUuid) {
+        if (joinLatency != null) {
+            joinLatency.onDisconnect(playerUuid);
+        }
+        if (lagSpikeRecorder != null) {
+            lagSpikeRecorder.recordPlayer(LagSpikeRecorder.KIND_PLAYER_DISCONNECT, playerUuid);
+        }
+        if (playerSessions != null) {
+            playerSessions.onDisconnect(playerUuid);
+        }
+    }
+
     public void recordBlockPlaced(Attributes attributes) {
-        if (blocksPlaced != null) {
-            blocksPlaced.add(1, attributes);
+        if (blocksPlaced != null && toggles.blocksPlaced) {
+            recordBlockEvent(EVENT_BLOCK_PLACED, blocksPlaced, attributes);
         }
     }
 
     public void recordBlockBroken(Attributes attributes) {
-        if (blocksBroken != null) {
-            blocksBroken.add(1, attributes);
+        if (blocksBroken != null && toggles.blocksBroken) {
+            recordBlockEvent(EVENT_BLOCK_BROKEN, blocksBroken, attributes);
         }
     }
 
     public void recordBlockInteraction(Attributes attributes) {
-        if (blockInteractions != null) {
-            blockInteractions.add(1, attributes);
+        if (blockInteractions != null && toggles.blockInteractions) {
+            recordBlockEvent(EVENT_BLOCK_INTERACTION, blockInteractions, attributes);
         }
     }
 
     public void recordWorldLoaded(Attributes attributes) {
-        if (worldsLoaded != null) {
+        if (worldsLoaded != null && toggles.worldLoading) {
             worldsLoaded.add(1, attributes);
         }
+        if (lagSpikeRecorder != null) {
+            lagSpikeRecorder.recordWorld(LagSpikeRecorder.KIND_WORLD_ADD, attributes.get(SpatialBucketer.WORLD_NAME));
+        }
     }
 
     public void recordWorldUnloaded(Attributes attributes) {
-        if (worldsUnloaded != null) {
+        if (worldsUnloaded != null && toggles.worldLoading) {
             worldsUnloaded.add(1, attributes);
         }
+        String worldName = attributes.get(SpatialBucketer.WORLD_NAME);
+        spatialBucketer.clearWorld(worldName);
+        blockAttributeCache.clearWorld(worldName);
+        if (tickMetrics != null) {
+            tickMetrics.removeWorld(worldName);
+        }
+        if (chunkMetrics != null) {
+            chunkMetrics.removeWorld(worldName);
+        }
+        if (playerRegistry != null) {
+            playerRegistry.removeWorld(worldName);
+        }
+        if (joinLatency != null) {
+            joinLatency.removeWorld(worldName);
+        }
+        if (blockOperationTracer != null) {
+            blockOperationTracer.removeWorld(worldName);
+        }
+        if (lagSpikeRecorder != null) {
+            lagSpikeRecorder.recordWorld(LagSpikeRecorder.KIND_WORLD_REMOVE, worldName);
+        }
+    }
+
+    /**
+     * Record a chunk event (one of the ChunkMetrics.OP_* constants).
+     */
+    public void recordChunkEvent(int operation, String worldName, boolean generated) {
+        if (chunkMetrics != null) {
+            chunkMetrics.onEvent(operation, worldName, generated);
+        }
+    }
+
+    /**
+     * Record the start of a world tick. Called from the world's tick thread with
+     * {@link System#nanoTime()} before any other system of the tick runs.
+     */
+    public void recordWorldTickStart(String worldName, long nowNanos) {
+        if (tickMetrics != null) {
+            tickMetrics.onTickStart(worldName, nowNanos);
+        }
+        if (lagSpikeRecorder != null) {
+            lagSpikeRecorder.onTickStart(worldName, nowNanos);
+        }
+    }
+
+    /**
+     * Record the end of a world tick. Called from the world's tick thread with
+     * {@link System#nanoTime()} after every other system of the tick has run.
+     */
+    public void recordWorldTick(String worldName, long nowNanos) {
+        if (tickMetrics != null) {
+            tickMetrics.onTickEnd(worldName, nowNanos);
+        }
+        if (blockOperationTracer != null) {
+            blockOperationTracer.onTick(worldName);
+        }
+        if (lagSpikeRecorder != null) {
+            lagSpikeRecorder.onTickEnd(worldName, nowNanos);
+        }
+    }
+
+    /**
+     * Add a block operation (one of the BlockOperationTracer.OP_* constants) to the
+     * world's per-tick block operation span and the lag spike recorder. Called from
+     * the world's tick thread.
+     */
+    public void traceBlockOperation(String worldName, int operation, int x, int y, int z, Attributes attributes) {
+        if (blockOperationTracer != null && !tracingShed && toggles.traceBlockOperations) {
+            blockOperationTracer.record(worldName, operation, attributes);
+        }
+        if (lagSpikeRecorder != null) {
+            byte kind = switch (operation) {
+                case BlockOperationTracer.OP_PLACE -> LagSpikeRecorder.KIND_BLOCK_PLACE;
+                case BlockOperationTracer.OP_BREAK -> LagSpikeRecorder.KIND_BLOCK_BREAK;
+                default -> LagSpikeRecorder.KIND_BLOCK_USE;
+            };
+            lagSpikeRecorder.recordBlock(kind, worldName, x, y, z);
+        }
+    }
+
+    /**
+     * Apply a reloaded configuration to the running telemetry, or reject it.
+     *
+     * Only sample rate, block, connection and world loading toggles, block operation
+     * tracing, OTLP export intervals and the attribute filters of metric views can change
+     * at runtime, and a category can only be switched back on if it was on at startup.
+     * Anything else needs a restart. The reload is applied in full or not at all.
+     *
+     * @return false if the reload was rejected
+     */
+    public synchronized boolean reload(PluginConfig updated) {
+        List<String> changed = ConfigDiff.changedPaths(appliedConfig, updated);
+        if (changed.isEmpty()) {
+            return true;
+        }
+        Toggles next = new Toggles(updated);
+        List<String> rejected = new ArrayList<>();
+        for (String path : changed) {
+            String reason = reloadRejection(path, updated, next);
+            if (reason != null) {
+                rejected.add(path + " (" + reason + ")");
+            }
+        }
+        if (!rejected.isEmpty()) {
+            logger.at(Level.WARNING).log(String.format(
+                    "HOTEL C: Rejected config.json reload, nothing was applied. Restart the server to change: %s",
+                    String.join(", ", rejected)));
+            return false;
+        }
+
+        toggles = next;
+        if (reloadableSampler != null) {
+            reloadableSampler.setDelegate(buildSampler(updated.getTracing().getSampleRate()));
+        }
+        if (readerScheduler != null && readerScheduler.size() > 0) {
+            // Reader groups were added first, the default reader last
+            List<PluginConfig.ReaderGroupConfig> groups = updated.getMetrics().getReaders();
+            for (int i = 0; i < groups.size(); i++) {
+                readerScheduler.setInterval(i, groups.get(i).getExportIntervalMs());
+            }
+            readerScheduler.setInterval(groups.size(), updated.getMetrics().getExportIntervalMs());
+        }
+        metricViews.reload(updated.getMetrics().getViews());
+        appliedConfig = updated;
+        logger.at(Level.INFO).log(String.format("HOTEL C: Reloaded config.json: %s", String.join(", ", changed)));
+        return true;
+    }
+
+    /**
+     * Why a changed setting cannot be applied at runtime, or null if it can.
+     */
+    private String reloadRejection(String path, PluginConfig updated, Toggles next) {
+        if (READER_INTERVAL.matcher(path).matches() || path.equals("metrics.exportIntervalMs")) {
+            if (readerScheduler == null || readerScheduler.size() == 0) {
+                return "no OTLP metric readers are running";
+            }
+            return updated.getMetrics().getExportIntervalMs() > 0
+                    && updated.getMetrics().getReaders().stream().allMatch(group -> group.getExportIntervalMs() > 0)
+                    ? null : "intervals must be positive";
+        }
+        if (path.startsWith("metrics.views")) {
+            return metricViews.reloadRejection(path);
+        }
+        return switch (path) {
+            case "tracing.sampleRate" -> {
+                double sampleRate = updated.getTracing().getSampleRate();
+                if (reloadableSampler == null) {
+                    yield "tracing was off at startup";
+                }
+                yield sampleRate >= 0.0 ? null : "must not be negative";
+            }
+            case "tracing.traceBlockOperations" ->
+                    next.traceBlockOperations && blockOperationTracer == null ? OFF_AT_STARTUP : null;
+            case "metrics.blockMetrics.enabled", "metrics.blockMetrics.trackPlacement",
+                 "metrics.blockMetrics.trackBreaking", "metrics.blockMetrics.trackInteractions" ->
+                    (next.blocksPlaced && blocksPlaced == null)
+                            || (next.blocksBroken && blocksBroken == null)
+                            || (next.blockInteractions && blockInteractions == null) ? OFF_AT_STARTUP : null;
+            case "metrics.playerMetrics.trackConnections" ->
+                    next.playerConnections && playerConnections == null ? OFF_AT_STARTUP : null;
+            case "metrics.worldMetrics.trackWorldLoading" ->
+                    next.worldLoading && worldsLoaded == null ? OFF_AT_STARTUP : null;
+            default -> "not reloadable";
+        };
+    }
+
+    /**
+     * Record one call of a plugin handler (one of the HandlerTimings constants).
+     *
+     * @param startNanos {@link System#nanoTime} taken when the handler was entered
+     */
+    public void recordHandlerTime(int handler, long startNanos) {
+        if (handlerTimings != null) {
+            handlerTimings.record(handler, startNanos);
+        }
+    }
+
+    public SpatialBucketer getSpatialBucketer() {
+        return spatialBucketer;
+    }
+
+    public TickMetrics getTickMetrics() {
+        return tickMetrics;
+    }
+
+    public BlockAttributeCache getBlockAttributeCache() {
+        return blockAttributeCache;
+    }
+
+    /**
+     * Labels for block types of broken and used blocks; passes values through unless top-K is enabled.
+     */
+    public TopKLabeler getBlockTypeLabels() {
+        return blockTypeLabels;
+    }
+
+    /**
+     * Labels for the item in hand of placed blocks; passes values through unless top-K is enabled.
+     */
+    public TopKLabeler getHeldItemLabels() {
+        return heldItemLabels;
+    }
+
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
     }
 
     public Tracer getTracer() {
@@ -398,6 +1379,29 @@ public class TelemetryManager {
     }
 
     public int getCurrentPlayerCount() {
-        return currentPlayerCount;
+        return playerRegistry != null ? playerRegistry.size() : 0;
+    }
+
+    /**
+     * Category switches that can be flipped by a config reload. Replaced as a whole,
+     * so handlers never see half of a reload.
+     */
+    private static final class Toggles {
+        final boolean blocksPlaced;
+        final boolean blocksBroken;
+        final boolean blockInteractions;
+        final boolean playerConnections;
+        final boolean worldLoading;
+        final boolean traceBlockOperations;
+
+        Toggles(PluginConfig config) {
+            var blockMetrics = config.getMetrics().getBlockMetrics();
+            blocksPlaced = blockMetrics.isEnabled() && blockMetrics.isTrackPlacement();
+            blocksBroken = blockMetrics.isEnabled() && blockMetrics.isTrackBreaking();
+            blockInteractions = blockMetrics.isEnabled() && blockMetrics.isTrackInteractions();
+            playerConnections = config.getMetrics().getPlayerMetrics().isTrackConnections();
+            worldLoading = config.getMetrics().getWorldMetrics().isTrackWorldLoading();
+            traceBlockOperations = config.getTracing().isTraceBlockOperations();
+        }
     }
 }
@@ -0,0 +1,267 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.BatchCallback;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableDoubleMeasurement;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-world tick duration and TPS metrics.
+ *
+ * Tick duration is the time a world spends in a tick, from the start mark set by the
+ * first system of its store to the end mark set by the last, recorded into
+ * {@code hytale.server.tick.duration} (exported as a base-2 exponential histogram)
+ * and into a local log-linear histogram per world. The local histogram is rotated on
+ * the shared scheduler at a fixed window; p50, p99, max and TPS of the last completed
+ * window are reported by every collection. TPS counts completed ticks; it is not
+ * derived from the durations, since a tick that fits in its slot leaves the rest of
+ * the slot idle.
+ *
+ * Collections only read the completed window, so several metric readers and scrapes
+ * can collect at any time without draining or shortening each other's window.
+ */
+public class TickMetrics {
+    public static final String TICK_DURATION = "hytale.server.tick.duration";
+
+    private static final AttributeKey<String> WORLD_NAME = AttributeKey.stringKey("world.name");
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final Map<String, WorldTicks> worlds = new ConcurrentHashMap<>();
+    private final DoubleHistogram tickDuration;
+    private final BatchCallback windowCallback;
+    private final long windowMs;
+
+    /**
+     * @param windowMs length of the window the quantile gauges are computed over
+     */
+    public TickMetrics(Meter meter, long windowMs) {
+        this.windowMs = Math.max(100, windowMs);
+
+        tickDuration = meter.histogramBuilder(TICK_DURATION)
+                .setDescription("Time spent in a world tick")
+                .setUnit("s")
+                .build();
+
+        ObservableDoubleMeasurement p50 = meter.gaugeBuilder("hytale.server.tick.p50")
+                .setDescription("Median tick duration over the last completed window")
+                .setUnit("s")
+                .buildObserver();
+        ObservableDoubleMeasurement p99 = meter.gaugeBuilder("hytale.server.tick.p99")
+                .setDescription("99th percentile tick duration over the last completed window")
+                .setUnit("s")
+                .buildObserver();
+        ObservableDoubleMeasurement max = meter.gaugeBuilder("hytale.server.tick.max")
+                .setDescription("Longest tick over the last completed window")
+                .setUnit("s")
+                .buildObserver();
+        ObservableDoubleMeasurement tps = meter.gaugeBuilder("hytale.server.tps")
+                .setDescription("Ticks per second over the last completed window")
+                .setUnit("{ticks}/s")
+                .buildObserver();
+
+        windowCallback = meter.batchCallback(() -> {
+            for (WorldTicks world : worlds.values()) {
+                world.report(p50, p99, max, tps);
+            }
+        }, p50, p99, max, tps);
+    }
+
+    /**
+     * Start rotating the window on the scheduler.
+     */
+    public void start(ScheduledExecutorService scheduler) {
+        scheduler.scheduleAtFixedRate(this::rotate, windowMs, windowMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void rotate() {
+        long now = System.nanoTime();
+        for (WorldTicks world : worlds.values()) {
+            try {
+                world.rotate(now);
+            } catch (RuntimeException e) {
+                // Skip this world; an exception would cancel the scheduled task
+            }
+        }
+    }
+
+    /**
+     * Mark the start of a tick of the given world. Must be called from that world's tick thread.
+     */
+    public void onTickStart(String worldName, long nowNanos) {
+        world(worldName, nowNanos).tickStart = nowNanos;
+    }
+
+    /**
+     * Mark the end of a tick of the given world and record its duration. Must be called
+     * from that world's tick thread. Ignored if the start of the tick was not seen.
+     */
+    public void onTickEnd(String worldName, long nowNanos) {
+        WorldTicks world = world(worldName, nowNanos);
+        long duration = world.tick(nowNanos);
+        if (duration > 0) {
+            tickDuration.record(duration / NANOS_PER_SECOND, world.attributes);
+        }
+    }
+
+    private WorldTicks world(String worldName, long nowNanos) {
+        String name = worldName != null ? worldName : "unknown";
+        WorldTicks world = worlds.get(name);
+        if (world == null) {
+            world = worlds.computeIfAbsent(name, n -> new WorldTicks(n, nowNanos));
+        }
+        return world;
+    }
+
+    /**
+     * Duration of the most recent tick of a world in nanoseconds, or 0 if unknown.
+     */
+    public long getLastTickNanos(String worldName) {
+        WorldTicks world = worlds.get(worldName);
+        return world != null ? world.lastDuration : 0;
+    }
+
+    /**
+     * Longest tick across all worlds in nanoseconds: the last tick duration, or the time
+     * the current tick has been running if that is longer, so a world stalled mid-tick
+     * is visible.
+     */
+    public long getLongestTickNanos(long nowNanos) {
+        long longest = 0;
+        for (WorldTicks world : worlds.values()) {
+            long tickStart = world.tickStart;
+            long running = tickStart != 0 ? nowNanos - tickStart : 0;
+            longest = Math.max(longest, Math.max(world.lastDuration, running));
+        }
+        return longest;
+    }
+
+    /**
+     * Tick time of the slowest world since the previous call, in nanoseconds: the mean
+     * of the ticks that completed, or the time the current tick has been running if that
+     * is longer, so a world stalled mid-tick does not read as idle. 0 if no world ticked.
+     * Each world keeps a single poll position, so only one caller may use this.
+     */
+    public long pollSlowestMeanTickNanos(long nowNanos) {
+        long slowest = 0;
+        for (WorldTicks world : worlds.values()) {
+            long tickStart = world.tickStart;
+            long running = tickStart != 0 ? nowNanos - tickStart : 0;
+            slowest = Math.max(slowest, Math.max(world.pollMean(), running));
+        }
+        return slowest;
+    }
+
+    public void removeWorld(String worldName) {
+        if (worldName != null) {
+            worlds.remove(worldName);
+        }
+    }
+
+    public void close() {
+        windowCallback.close();
+    }
+
+    private static final class WorldTicks {
+        final Attributes attributes;
+        final LogLinearHistogram window = new LogLinearHistogram();
+        final LogLinearHistogram.Snapshot snapshot = new LogLinearHistogram.Snapshot();
+
+        // Start of the running tick, 0 between ticks
+        volatile long tickStart;
+        volatile long lastDuration;
+        long windowStart;
+
+        // Running totals written by the tick thread, and the poller's position in them
+        volatile long totalTicks;
+        volatile long totalNanos;
+        long polledTicks;
+        long polledNanos;
+
+        // Statistics of the last completed window, null if no tick completed in it
+        volatile WindowStats completed;
+
+        WorldTicks(String worldName, long now) {
+            this.attributes = Attributes.of(WORLD_NAME, worldName);
+            this.windowStart = now;
+        }
+
+        long tick(long now) {
+            long start = tickStart;
+            if (start == 0) {
+                return 0;
+            }
+            tickStart = 0;
+            long duration = now - start;
+            lastDuration = duration;
+            window.record(duration);
+            totalNanos += duration;
+            totalTicks++;
+            return duration;
+        }
+
+        long pollMean() {
+            long ticks = totalTicks;
+            long nanos = totalNanos;
+            long mean = ticks > polledTicks ? (nanos - polledNanos) / (ticks - polledTicks) : 0;
+            polledTicks = ticks;
+            polledNanos = nanos;
+            return mean;
+        }
+
+        /**
+         * Close the current window and start the next. Runs on the scheduler thread only.
+         */
+        void rotate(long now) {
+            long elapsed = now - windowStart;
+            window.snapshotAndReset(snapshot);
+            windowStart = now;
+            if (snapshot.getCount() == 0) {
+                completed = null;
+                return;
+            }
+            completed = new WindowStats(
+                    snapshot.quantile(0.50) / NANOS_PER_SECOND,
+                    snapshot.quantile(0.99) / NANOS_PER_SECOND,
+                    snapshot.getMax() / NANOS_PER_SECOND,
+                    elapsed > 0 ? snapshot.getCount() * NANOS_PER_SECOND / elapsed : 0);
+        }
+
+        /**
+         * Report the last completed window. Safe to call from any collecting thread.
+         */
+        void report(ObservableDoubleMeasurement p50, ObservableDoubleMeasurement p99,
+                    ObservableDoubleMeasurement max, ObservableDoubleMeasurement tps) {
+            WindowStats stats = completed;
+            if (stats == null) {
+                return;
+            }
+            p50.record(stats.p50, attributes);
+            p99.record(stats.p99, attributes);
+            max.record(stats.max, attributes);
+            if (stats.tps > 0) {
+                tps.record(stats.tps, attributes);
+            }
+        }
+    }
+
+    private static final class WindowStats {
+        final double p50;
+        final double p99;
+        final double max;
+        final double tps;
+
+        WindowStats(double p50, double p99, double max, double tps) {
+            this.p50 = p50;
+            this.p99 = p99;
+            this.max = max;
+            this.tps = tps;
+        }
+    }
+}
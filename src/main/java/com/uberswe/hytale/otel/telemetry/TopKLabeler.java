@@ -0,0 +1,228 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Caps the distinct values of an attribute to the most frequent ones.
+ *
+ * Values are counted with a Space-Saving sketch: a fixed number of counters, kept in a
+ * min-heap, where an unmonitored value takes over the smallest counter. Within a
+ * window, {@link #label} returns the value itself if it is one of the k labelled values
+ * and {@link #OTHER} otherwise. Labels are seeded first come, first served until k
+ * values have one. At the end of each window a labelled value that counted below the
+ * k-th most frequent value is given a miss, and it loses its label after a number of
+ * misses in a row; freed labels go to the most frequent unlabelled values of the
+ * window. Labels only change when the mix shifts for good, which matters under
+ * cumulative temporality, where every value that ever held a label stays a series.
+ * Memory stays fixed however many distinct values arrive.
+ *
+ * Each thread counts into its own sketch, so world threads never wait on each other;
+ * the sketches are merged at the end of the window. Labels are an immutable set that is
+ * replaced when a value is seeded or the window ends, so reading them takes no lock.
+ */
+public class TopKLabeler {
+    public static final String OTHER = "other";
+
+    // More counters than labels keep the long tail from evicting real heavy hitters
+    private static final int COUNTERS_PER_LABEL = 8;
+    private static final int MIN_COUNTERS = 64;
+
+    private final int k;
+    private final int capacity;
+    private final int evictAfterWindows;
+
+    private volatile Set<String> labels = Set.of();
+    // Windows in a row each labelled value counted below the k-th value; guarded by this
+    private final Map<String, Integer> misses = new HashMap<>();
+    private final List<Sketch> sketches = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Sketch> threadSketch = ThreadLocal.withInitial(this::newSketch);
+
+    /**
+     * @param k number of values that keep their own label; 0 or less disables capping
+     * @param evictAfterWindows windows in a row a value must count below the k-th value to lose its label
+     */
+    public TopKLabeler(int k, int evictAfterWindows) {
+        this.k = Math.max(0, k);
+        this.capacity = this.k == 0 ? 0 : Math.max(MIN_COUNTERS, this.k * COUNTERS_PER_LABEL);
+        this.evictAfterWindows = Math.max(1, evictAfterWindows);
+    }
+
+    /**
+     * Count one occurrence of a value and return the label to report it under.
+     */
+    public String label(String value) {
+        if (k == 0 || value == null) {
+            return value;
+        }
+        threadSketch.get().offer(value);
+        Set<String> current = labels;
+        if (current.contains(value)) {
+            return value;
+        }
+        return current.size() < k ? seed(value) : OTHER;
+    }
+
+    /**
+     * Give a value a label while fewer than k values have one. Taken at most k times
+     * per window, so the copy is cheap.
+     */
+    private synchronized String seed(String value) {
+        Set<String> current = labels;
+        if (current.contains(value)) {
+            return value;
+        }
+        if (current.size() >= k) {
+            return OTHER;
+        }
+        Set<String> grown = new HashSet<>(current);
+        grown.add(value);
+        labels = Set.copyOf(grown);
+        return value;
+    }
+
+    /**
+     * End the current window: evict labels that stayed below the k-th most frequent
+     * value for too long, hand freed labels to the most frequent unlabelled values and
+     * start counting afresh.
+     */
+    public synchronized void rollover() {
+        Map<String, Long> merged = new HashMap<>();
+        for (Sketch sketch : sketches) {
+            sketch.drainTo(merged);
+        }
+        if (merged.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, Long>> order = new ArrayList<>(merged.entrySet());
+        order.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        long kth = order.size() >= k ? order.get(k - 1).getValue() : 0;
+
+        Set<String> kept = new HashSet<>();
+        for (String label : labels) {
+            if (merged.getOrDefault(label, 0L) >= kth) {
+                misses.remove(label);
+                kept.add(label);
+            } else if (misses.merge(label, 1, Integer::sum) < evictAfterWindows) {
+                kept.add(label);
+            } else {
+                misses.remove(label);
+            }
+        }
+        for (int i = 0; i < order.size() && kept.size() < k; i++) {
+            kept.add(order.get(i).getKey());
+        }
+        labels = Set.copyOf(kept);
+    }
+
+    public boolean isEnabled() {
+        return k > 0;
+    }
+
+    private Sketch newSketch() {
+        Sketch sketch = new Sketch(capacity);
+        sketches.add(sketch);
+        return sketch;
+    }
+
+    /**
+     * Space-Saving counters of one thread. Only the owning thread offers values; the
+     * lock is contended only by {@link #rollover}.
+     */
+    private static final class Sketch {
+        private final Map<String, Integer> slots = new HashMap<>();
+        private final String[] keys;
+        private final long[] counts;
+        private final int[] heap;      // Heap position -> slot, min count at the root
+        private final int[] positions; // Slot -> heap position
+        private int size;
+
+        Sketch(int capacity) {
+            this.keys = new String[capacity];
+            this.counts = new long[capacity];
+            this.heap = new int[capacity];
+            this.positions = new int[capacity];
+        }
+
+        synchronized void offer(String value) {
+            Integer slot = slots.get(value);
+            if (slot != null) {
+                counts[slot]++;
+                siftDown(positions[slot]);
+            } else if (size < keys.length) {
+                int added = size++;
+                keys[added] = value;
+                counts[added] = 1;
+                heap[added] = added;
+                positions[added] = added;
+                slots.put(value, added);
+                siftUp(added);
+            } else {
+                // Take over the smallest counter, inheriting its count as the error bound
+                int replaced = heap[0];
+                slots.remove(keys[replaced]);
+                keys[replaced] = value;
+                counts[replaced]++;
+                slots.put(value, replaced);
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Add this window's counts to the merged totals and start counting afresh.
+         */
+        synchronized void drainTo(Map<String, Long> merged) {
+            for (int i = 0; i < size; i++) {
+                merged.merge(keys[i], counts[i], Long::sum);
+            }
+            Arrays.fill(keys, 0, size, null);
+            slots.clear();
+            size = 0;
+        }
+
+        private void siftUp(int position) {
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (counts[heap[parent]] <= counts[heap[position]]) {
+                    return;
+                }
+                swap(parent, position);
+                position = parent;
+            }
+        }
+
+        private void siftDown(int position) {
+            while (true) {
+                int smallest = position;
+                int left = 2 * position + 1;
+                int right = left + 1;
+                if (left < size && counts[heap[left]] < counts[heap[smallest]]) {
+                    smallest = left;
+                }
+                if (right < size && counts[heap[right]] < counts[heap[smallest]]) {
+                    smallest = right;
+                }
+                if (smallest == position) {
+                    return;
+                }
+                swap(position, smallest);
+                position = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int slotA = heap[a];
+            int slotB = heap[b];
+            heap[a] = slotB;
+            heap[b] = slotA;
+            positions[slotB] = a;
+            positions[slotA] = b;
+        }
+    }
+}
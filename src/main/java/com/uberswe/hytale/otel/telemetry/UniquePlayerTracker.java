@@ -0,0 +1,285 @@
+package com.uberswe.hytale.otel.telemetry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Estimated number of distinct players over the last hour, day and 7 days.
+ *
+ * Each window is the union of HyperLogLog sketches kept per time bucket: 5 minute
+ * buckets for the hour and hourly buckets for the day and week. A window therefore
+ * covers the current, partly filled bucket plus the full buckets before it. Memory is
+ * fixed by the precision (2^precision one-byte registers per bucket) no matter how many
+ * players join, and the relative error is about 1.04 / sqrt(2^precision).
+ *
+ * Players are added on connect; players that stay online are added again by
+ * {@link #addAll} so they are counted in every bucket they were online in. The
+ * registers can be saved to and loaded from a file so restarts do not reset the counts.
+ */
+public class UniquePlayerTracker {
+    public static final String UNIQUE_PLAYERS = "hytale.players.unique";
+    public static final long REFRESH_INTERVAL_MS = 5 * 60_000L;
+
+    public static final int MIN_PRECISION = 7;
+    public static final int MAX_PRECISION = 16;
+
+    private static final AttributeKey<String> WINDOW = AttributeKey.stringKey("window");
+    private static final Attributes HOUR = Attributes.of(WINDOW, "1h");
+    private static final Attributes DAY = Attributes.of(WINDOW, "1d");
+    private static final Attributes WEEK = Attributes.of(WINDOW, "7d");
+
+    private static final int FILE_MAGIC = 0x48554e51; // "HUNQ"
+    private static final int FILE_VERSION = 1;
+    private static final long NO_EPOCH = -1;
+
+    private final int precision;
+    private final int registerCount;
+    private final double alpha;
+
+    // Guarded by this
+    private final Ring minutes;
+    private final Ring hours;
+    private final byte[] scratch;
+
+    public UniquePlayerTracker(Meter meter, int precision) {
+        this.precision = Math.max(MIN_PRECISION, Math.min(MAX_PRECISION, precision));
+        this.registerCount = 1 << this.precision;
+        this.alpha = 0.7213 / (1 + 1.079 / registerCount);
+        this.minutes = new Ring(REFRESH_INTERVAL_MS, 12, registerCount);
+        this.hours = new Ring(60 * 60_000L, 7 * 24, registerCount);
+        this.scratch = new byte[registerCount];
+
+        meter.gaugeBuilder(UNIQUE_PLAYERS)
+                .setDescription("Estimated number of distinct players seen, by window")
+                .setUnit("{players}")
+                .ofLongs()
+                .buildWithCallback(measurement -> {
+                    long now = System.currentTimeMillis();
+                    synchronized (this) {
+                        measurement.record(estimate(minutes, minutes.slots(), now), HOUR);
+                        measurement.record(estimate(hours, 24, now), DAY);
+                        measurement.record(estimate(hours, hours.slots(), now), WEEK);
+                    }
+                });
+    }
+
+    public synchronized void add(UUID playerUuid, long nowMillis) {
+        long hash = hash(playerUuid);
+        int index = (int) (hash >>> (64 - precision));
+        // Rank of the first set bit in the remaining bits, capped by a sentinel bit
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+        minutes.add(index, rank, nowMillis);
+        hours.add(index, rank, nowMillis);
+    }
+
+    /**
+     * Add players that are still online, so long sessions count in every bucket.
+     */
+    public void addAll(Iterable<UUID> playerUuids, long nowMillis) {
+        for (UUID playerUuid : playerUuids) {
+            add(playerUuid, nowMillis);
+        }
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Write the registers to a file. The file is replaced atomically so a crash while
+     * saving leaves the previous copy intact.
+     */
+    public void save(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(precision);
+            synchronized (this) {
+                minutes.write(out);
+                hours.write(out);
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restore registers written by {@link #save}. Registers from a file with another
+     * precision or layout are ignored.
+     *
+     * @return true if the file existed and was loaded
+     */
+    public boolean load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION || in.readInt() != precision) {
+                return false;
+            }
+            Ring loadedMinutes = new Ring(minutes.bucketMillis, minutes.slots(), registerCount);
+            Ring loadedHours = new Ring(hours.bucketMillis, hours.slots(), registerCount);
+            if (!loadedMinutes.read(in) || !loadedHours.read(in)) {
+                return false;
+            }
+            synchronized (this) {
+                minutes.merge(loadedMinutes);
+                hours.merge(loadedHours);
+            }
+            return true;
+        }
+    }
+
+    private long estimate(Ring ring, int windowSlots, long nowMillis) {
+        Arrays.fill(scratch, (byte) 0);
+        if (!ring.union(windowSlots, nowMillis, scratch)) {
+            return 0;
+        }
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : scratch) {
+            sum += Double.longBitsToDouble((1023L - register) << 52); // 2^-register
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha * registerCount * registerCount / sum;
+        // Linear counting is more accurate while many registers are still empty
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            estimate = registerCount * Math.log((double) registerCount / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    private static long hash(UUID uuid) {
+        return mix64(mix64(uuid.getMostSignificantBits()) ^ uuid.getLeastSignificantBits());
+    }
+
+    private static long mix64(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+
+    /**
+     * A ring of per-bucket sketches. A slot is reused, and cleared, once its bucket
+     * falls out of the ring.
+     */
+    private static final class Ring {
+        final long bucketMillis;
+        final long[] epochs;
+        final byte[][] registers;
+
+        Ring(long bucketMillis, int slots, int registerCount) {
+            this.bucketMillis = bucketMillis;
+            this.epochs = new long[slots];
+            this.registers = new byte[slots][registerCount];
+            Arrays.fill(epochs, NO_EPOCH);
+        }
+
+        int slots() {
+            return epochs.length;
+        }
+
+        void add(int index, byte rank, long nowMillis) {
+            long epoch = nowMillis / bucketMillis;
+            int slot = (int) (epoch % epochs.length);
+            if (epochs[slot] > epoch) {
+                // The slot already holds a newer bucket, e.g. after the clock went back
+                return;
+            }
+            byte[] bucket = registers[slot];
+            if (epochs[slot] != epoch) {
+                Arrays.fill(bucket, (byte) 0);
+                epochs[slot] = epoch;
+            }
+            if (bucket[index] < rank) {
+                bucket[index] = rank;
+            }
+        }
+
+        /**
+         * @return false if no bucket of the window has any players
+         */
+        boolean union(int windowSlots, long nowMillis, byte[] target) {
+            long current = nowMillis / bucketMillis;
+            boolean any = false;
+            for (int slot = 0; slot < epochs.length; slot++) {
+                long epoch = epochs[slot];
+                if (epoch == NO_EPOCH || epoch > current || epoch <= current - windowSlots) {
+                    continue;
+                }
+                any = true;
+                byte[] bucket = registers[slot];
+                for (int i = 0; i < target.length; i++) {
+                    if (target[i] < bucket[i]) {
+                        target[i] = bucket[i];
+                    }
+                }
+            }
+            return any;
+        }
+
+        /**
+         * Fold in buckets from another ring with the same layout, keeping the newer
+         * bucket where the two disagree on a slot.
+         */
+        void merge(Ring other) {
+            for (int slot = 0; slot < epochs.length; slot++) {
+                long epoch = other.epochs[slot];
+                if (epoch == NO_EPOCH || epoch < epochs[slot]) {
+                    continue;
+                }
+                if (epoch > epochs[slot]) {
+                    epochs[slot] = epoch;
+                    System.arraycopy(other.registers[slot], 0, registers[slot], 0, registers[slot].length);
+                } else {
+                    byte[] bucket = registers[slot];
+                    byte[] loaded = other.registers[slot];
+                    for (int i = 0; i < bucket.length; i++) {
+                        if (bucket[i] < loaded[i]) {
+                            bucket[i] = loaded[i];
+                        }
+                    }
+                }
+            }
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeLong(bucketMillis);
+            out.writeInt(epochs.length);
+            for (int slot = 0; slot < epochs.length; slot++) {
+                out.writeLong(epochs[slot]);
+                if (epochs[slot] != NO_EPOCH) {
+                    out.write(registers[slot]);
+                }
+            }
+        }
+
+        boolean read(DataInputStream in) throws IOException {
+            if (in.readLong() != bucketMillis || in.readInt() != epochs.length) {
+                return false;
+            }
+            for (int slot = 0; slot < epochs.length; slot++) {
+                epochs[slot] = in.readLong();
+                if (epochs[slot] != NO_EPOCH) {
+                    in.readFully(registers[slot]);
+                }
+            }
+            return true;
+        }
+    }
+}